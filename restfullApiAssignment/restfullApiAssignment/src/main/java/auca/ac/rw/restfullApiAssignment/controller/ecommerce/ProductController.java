@@ -1,11 +1,34 @@
 package auca.ac.rw.restfullApiAssignment.controller.ecommerce;
 
+import auca.ac.rw.restfullApiAssignment.modal.common.ImportReport;
 import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Reservation;
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.ReservationItem;
+import auca.ac.rw.restfullApiAssignment.repository.ecommerce.ProductRepository;
+import auca.ac.rw.restfullApiAssignment.repository.ecommerce.ReservationRepository;
+import auca.ac.rw.restfullApiAssignment.support.JsonCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,58 +39,105 @@ import java.util.Optional;
 @RequestMapping("/api/products")
 public class ProductController {
 
-    // In-memory list to store products
-    private List<Product> products = new ArrayList<>();
-    private Long nextId = 11L;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int IMPORT_BATCH_SIZE = 1_000;
+
+    // Thread-safe in-memory store of products, indexed by ID
+    private final ProductRepository products;
+
+    // Stock held for carts until checkout commits or releases it, or the hold runs out
+    private final ReservationRepository reservations;
+
+    private final ObjectMapper objectMapper;
+
+    // Writes one product per row without flushing the response after each one
+    private final ObjectWriter rowWriter;
+
+    // Pre-serialized JSON of single products, invalidated whenever a product changes
+    private final JsonCache productJson;
 
     // Initialize with sample data
-    public ProductController() {
-        products.add(new Product(1L, "iPhone 15 Pro", "Latest Apple smartphone with A17 Pro chip", 999.99, "Electronics", 50, "Apple"));
-        products.add(new Product(2L, "Samsung Galaxy S24", "Flagship Android smartphone", 899.99, "Electronics", 30, "Samsung"));
-        products.add(new Product(3L, "MacBook Pro", "16-inch laptop with M3 chip", 2499.99, "Electronics", 15, "Apple"));
-        products.add(new Product(4L, "Dell XPS 15", "High-performance Windows laptop", 1799.99, "Electronics", 20, "Dell"));
-        products.add(new Product(5L, "Sony WH-1000XM5", "Noise-canceling wireless headphones", 399.99, "Audio", 100, "Sony"));
-        products.add(new Product(6L, "AirPods Pro", "Wireless earbuds with active noise cancellation", 249.99, "Audio", 75, "Apple"));
-        products.add(new Product(7L, "Nike Air Max", "Comfortable running shoes", 129.99, "Footwear", 200, "Nike"));
-        products.add(new Product(8L, "Adidas Ultraboost", "Premium running shoes with boost technology", 189.99, "Footwear", 150, "Adidas"));
-        products.add(new Product(9L, "Levi's 501 Jeans", "Classic straight fit jeans", 69.99, "Clothing", 0, "Levi's"));
-        products.add(new Product(10L, "Canon EOS R6", "Full-frame mirrorless camera", 2499.99, "Electronics", 10, "Canon"));
+    public ProductController(ObjectMapper objectMapper,
+                             @Value("${products.storage.columnar:false}") boolean columnarStorage) {
+        this.objectMapper = objectMapper;
+        this.products = new ProductRepository(columnarStorage);
+        this.productJson = new JsonCache(objectMapper);
+        this.reservations = new ReservationRepository(products, productJson::invalidate);
+        this.rowWriter = objectMapper.writerFor(Product.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        products.load(new Product(1L, "iPhone 15 Pro", "Latest Apple smartphone with A17 Pro chip", 999.99, "Electronics", 50, "Apple"));
+        products.load(new Product(2L, "Samsung Galaxy S24", "Flagship Android smartphone", 899.99, "Electronics", 30, "Samsung"));
+        products.load(new Product(3L, "MacBook Pro", "16-inch laptop with M3 chip", 2499.99, "Electronics", 15, "Apple"));
+        products.load(new Product(4L, "Dell XPS 15", "High-performance Windows laptop", 1799.99, "Electronics", 20, "Dell"));
+        products.load(new Product(5L, "Sony WH-1000XM5", "Noise-canceling wireless headphones", 399.99, "Audio", 100, "Sony"));
+        products.load(new Product(6L, "AirPods Pro", "Wireless earbuds with active noise cancellation", 249.99, "Audio", 75, "Apple"));
+        products.load(new Product(7L, "Nike Air Max", "Comfortable running shoes", 129.99, "Footwear", 200, "Nike"));
+        products.load(new Product(8L, "Adidas Ultraboost", "Premium running shoes with boost technology", 189.99, "Footwear", 150, "Adidas"));
+        products.load(new Product(9L, "Levi's 501 Jeans", "Classic straight fit jeans", 69.99, "Clothing", 0, "Levi's"));
+        products.load(new Product(10L, "Canon EOS R6", "Full-frame mirrorless camera", 2499.99, "Electronics", 10, "Canon"));
     }
 
     /**
-     * GET /api/products - Get all products with optional pagination
+     * GET /api/products - Get all products with optional pagination.
+     * With page and limit the result is offset-paged; with cursor and/or limit it is
+     * keyset-paged and the X-Next-Cursor header carries the token for the next page.
+     * Answers 304 Not Modified when If-None-Match matches the catalog's ETag.
      */
     @GetMapping
     public ResponseEntity<List<Product>> getAllProducts(
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer limit) {
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        
+        if (request.checkNotModified(products.version().eTag())) {
+            return null;
+        }
+        
+        if (page == null && (cursor != null || limit != null)) {
+            return getProductsAfterCursor(cursor, limit == null ? DEFAULT_PAGE_SIZE : limit);
+        }
         
         if (page != null && limit != null && page >= 0 && limit > 0) {
-            int start = page * limit;
-            int end = Math.min(start + limit, products.size());
-            
-            if (start >= products.size()) {
-                return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
-            }
-            
-            List<Product> paginatedProducts = products.subList(start, end);
+            List<Product> paginatedProducts = products.values().stream()
+                    .skip((long) page * limit)
+                    .limit(limit)
+                    .toList();
             return new ResponseEntity<>(paginatedProducts, HttpStatus.OK);
         }
         
-        return new ResponseEntity<>(products, HttpStatus.OK);
+        return new ResponseEntity<>(products.findAll(), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/products/export - Stream the whole catalog as newline-delimited JSON
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = rowWriter.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                for (Product product : products.values()) {
+                    rowWriter.writeValue(generator, product);
+                }
+                generator.writeRaw('\n');
+            }
+        };
+        return new ResponseEntity<>(body, HttpStatus.OK);
     }
 
     /**
      * GET /api/products/{productId} - Get product details
      */
     @GetMapping("/{productId}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long productId) {
-        Optional<Product> product = products.stream()
-                .filter(p -> p.getProductId().equals(productId))
-                .findFirst();
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long productId) {
+        byte[] json = productJson.get(productId, () -> products.findById(productId).orElse(null));
         
-        if (product.isPresent()) {
-            return new ResponseEntity<>(product.get(), HttpStatus.OK);
+        if (json != null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -78,12 +148,7 @@ public class ProductController {
      */
     @GetMapping("/category/{category}")
     public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
-        List<Product> result = new ArrayList<>();
-        for (Product product : products) {
-            if (product.getCategory().equalsIgnoreCase(category)) {
-                result.add(product);
-            }
-        }
+        List<Product> result = products.findByCategory(category);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
@@ -92,61 +157,47 @@ public class ProductController {
      */
     @GetMapping("/brand/{brand}")
     public ResponseEntity<List<Product>> getProductsByBrand(@PathVariable String brand) {
-        List<Product> result = new ArrayList<>();
-        for (Product product : products) {
-            if (product.getBrand().equalsIgnoreCase(brand)) {
-                result.add(product);
-            }
-        }
+        List<Product> result = products.findByBrand(brand);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
     /**
-     * GET /api/products/search?keyword={keyword} - Search products by keyword
+     * GET /api/products/search?keyword={keyword} - Search products by keyword, name matches first
      */
     @GetMapping("/search")
     public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword) {
-        List<Product> result = new ArrayList<>();
-        String lowerKeyword = keyword.toLowerCase();
-        
-        for (Product product : products) {
-            if (product.getName().toLowerCase().contains(lowerKeyword) ||
-                product.getDescription().toLowerCase().contains(lowerKeyword)) {
-                result.add(product);
-            }
-        }
+        List<Product> result = products.search(keyword);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
     /**
-     * GET /api/products/price-range?min={min}&max={max} - Get products within price range
+     * GET /api/products/price-range?min={min}&max={max}&sort={asc|desc}&limit={limit} - Get products within price range
      */
     @GetMapping("/price-range")
     public ResponseEntity<List<Product>> getProductsByPriceRange(
-            @RequestParam Double min,
-            @RequestParam Double max) {
-        List<Product> result = new ArrayList<>();
-        
-        for (Product product : products) {
-            if (product.getPrice() >= min && product.getPrice() <= max) {
-                result.add(product);
-            }
+            @RequestParam double min,
+            @RequestParam double max,
+            @RequestParam(defaultValue = "asc") String sort,
+            @RequestParam(required = false) Integer limit) {
+        boolean descending = sort.equalsIgnoreCase("desc");
+        if ((!descending && !sort.equalsIgnoreCase("asc")) || (limit != null && limit <= 0)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
+        
+        List<Product> result = products.findByPriceRange(min, max, descending,
+                limit == null ? Integer.MAX_VALUE : limit);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
     /**
-     * GET /api/products/in-stock - Get products with stock > 0
+     * GET /api/products/in-stock?category={category}&brand={brand} - Get products with stock > 0,
+     * optionally limited to a category and/or brand
      */
     @GetMapping("/in-stock")
-    public ResponseEntity<List<Product>> getInStockProducts() {
-        List<Product> result = new ArrayList<>();
-        
-        for (Product product : products) {
-            if (product.getStockQuantity() > 0) {
-                result.add(product);
-            }
-        }
+    public ResponseEntity<List<Product>> getInStockProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand) {
+        List<Product> result = products.findInStock(category, brand);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
@@ -155,24 +206,74 @@ public class ProductController {
      */
     @PostMapping
     public ResponseEntity<Product> addProduct(@RequestBody Product product) {
-        product.setProductId(nextId++);
-        products.add(product);
-        return new ResponseEntity<>(product, HttpStatus.CREATED);
+        return new ResponseEntity<>(products.add(product), HttpStatus.CREATED);
     }
 
     /**
-     * PUT /api/products/{productId} - Update product details
+     * POST /api/products/bulk - Import products from a JSON array or NDJSON body.
+     * Rows are parsed one at a time and stored in batches, so memory does not grow with the payload.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<ImportReport> importProducts(InputStream body) throws IOException {
+        ImportReport report = new ImportReport();
+        List<Product> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        long row = 1;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                JsonNode node = parser.readValueAsTree();
+                String problem = null;
+                Product product = null;
+                if (!node.isObject()) {
+                    problem = "Expected a JSON object";
+                } else {
+                    try {
+                        product = objectMapper.treeToValue(node, Product.class);
+                        problem = validateImportedProduct(product);
+                    } catch (JsonProcessingException e) {
+                        problem = e.getOriginalMessage();
+                    }
+                }
+
+                if (problem != null) {
+                    report.addError(row, problem);
+                } else {
+                    batch.add(product);
+                    if (batch.size() == IMPORT_BATCH_SIZE) {
+                        flushImportBatch(batch, report);
+                    }
+                }
+                row++;
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // The stream cannot be resynchronized after malformed JSON, so the import stops here
+            report.addError(row, "Malformed JSON: " + e.getOriginalMessage());
+        }
+
+        flushImportBatch(batch, report);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    /**
+     * PUT /api/products/{productId} - Update product details. The stock quantity is kept, since
+     * reservations may hold part of it; change it with PATCH /api/products/{productId}/stock
      */
     @PutMapping("/{productId}")
     public ResponseEntity<Product> updateProduct(@PathVariable Long productId, @RequestBody Product updatedProduct) {
-        for (int i = 0; i < products.size(); i++) {
-            if (products.get(i).getProductId().equals(productId)) {
-                updatedProduct.setProductId(productId);
-                products.set(i, updatedProduct);
-                return new ResponseEntity<>(updatedProduct, HttpStatus.OK);
-            }
+        Optional<Product> product = products.replace(productId, updatedProduct);
+        
+        if (product.isPresent()) {
+            productJson.invalidate(productId);
+            return new ResponseEntity<>(product.get(), HttpStatus.OK);
+        } else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     /**
@@ -180,13 +281,59 @@ public class ProductController {
      */
     @PatchMapping("/{productId}/stock")
     public ResponseEntity<Product> updateStock(@PathVariable Long productId, @RequestParam int quantity) {
-        for (Product product : products) {
-            if (product.getProductId().equals(productId)) {
-                product.setStockQuantity(quantity);
-                return new ResponseEntity<>(product, HttpStatus.OK);
-            }
+        Optional<Product> product = products.updateStock(productId, quantity);
+        
+        if (product.isPresent()) {
+            productJson.invalidate(productId);
+            return new ResponseEntity<>(product.get(), HttpStatus.OK);
+        } else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * POST /api/products/{productId}/reserve?quantity={quantity} - Reserve stock of a single product
+     */
+    @PostMapping("/{productId}/reserve")
+    public ResponseEntity<Reservation> reserveStock(@PathVariable Long productId, @RequestParam int quantity) {
+        return reserve(List.of(new ReservationItem(productId, quantity)));
+    }
+
+    /**
+     * POST /api/products/reservations - Reserve stock for a whole cart, all items or none
+     */
+    @PostMapping("/reservations")
+    public ResponseEntity<Reservation> reserveCart(@RequestBody List<ReservationItem> items) {
+        return reserve(items);
+    }
+
+    /**
+     * POST /api/products/reservations/{reservationId}/commit - Commit a reservation at checkout
+     */
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ResponseEntity<Reservation> commitReservation(@PathVariable String reservationId) {
+        Optional<Reservation> reservation = reservations.commit(reservationId);
+        
+        if (reservation.isPresent()) {
+            return new ResponseEntity<>(reservation.get(), HttpStatus.OK);
+        } else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * DELETE /api/products/reservations/{reservationId} - Release a reservation and return its stock
+     */
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Void> releaseReservation(@PathVariable String reservationId) {
+        Optional<Reservation> released = reservations.release(reservationId);
+        
+        if (released.isPresent()) {
+            released.get().getItems().forEach(item -> productJson.invalidate(item.getProductId()));
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     /**
@@ -194,12 +341,100 @@ public class ProductController {
      */
     @DeleteMapping("/{productId}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long productId) {
-        boolean removed = products.removeIf(product -> product.getProductId().equals(productId));
+        boolean removed = products.remove(productId);
         
         if (removed) {
+            productJson.remove(productId);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
\ No newline at end of file
+
+    private void flushImportBatch(List<Product> batch, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        products.addAll(new ArrayList<>(batch));
+        report.addImported(batch.size());
+        batch.clear();
+    }
+
+    private static String validateImportedProduct(Product product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "Product name is required";
+        }
+        if (product.getPrice() == null || product.getPrice() < 0) {
+            return "Price must be zero or more";
+        }
+        if (product.getStockQuantity() < 0) {
+            return "Stock quantity must be zero or more";
+        }
+        return null;
+    }
+
+    private ResponseEntity<Reservation> reserve(List<ReservationItem> items) {
+        if (items == null || items.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        for (ReservationItem item : items) {
+            if (item.getProductId() == null || item.getQuantity() <= 0) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            if (products.findById(item.getProductId()).isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        }
+
+        Optional<Reservation> reservation;
+        try {
+            reservation = reservations.reserve(items);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        // Stock may have moved even on failure (taken, then rolled back)
+        items.forEach(item -> productJson.invalidate(item.getProductId()));
+        if (reservation.isPresent()) {
+            return new ResponseEntity<>(reservation.get(), HttpStatus.CREATED);
+        } else {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    private ResponseEntity<List<Product>> getProductsAfterCursor(String cursor, int limit) {
+        Long afterId = null;
+        if (cursor != null) {
+            afterId = decodeCursor(cursor);
+            if (afterId == null) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+        if (limit <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        // Fetch one extra row to find out whether another page follows
+        List<Product> page = products.findAfter(afterId, limit + 1);
+        if (page.size() <= limit) {
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        }
+        page = page.subList(0, limit);
+        String next = encodeCursor(page.get(limit - 1).getProductId());
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, next)
+                .body(new ArrayList<>(page));
+    }
+
+    private static String encodeCursor(Long productId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(productId.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package auca.ac.rw.restfullApiAssignment.controller.library;
 
 import auca.ac.rw.restfullApiAssignment.modal.library.Book;
+import auca.ac.rw.restfullApiAssignment.modal.library.IsbnLookup;
+import auca.ac.rw.restfullApiAssignment.modal.library.YearCount;
+import auca.ac.rw.restfullApiAssignment.repository.library.BookRepository;
+import auca.ac.rw.restfullApiAssignment.repository.library.DuplicateIsbnException;
+import auca.ac.rw.restfullApiAssignment.repository.library.Isbn;
+import auca.ac.rw.restfullApiAssignment.support.JsonCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,15 +24,25 @@ import java.util.Optional;
 @RequestMapping("/api/books")
 public class BookController {
 
-    // In-memory list to store books
-    private List<Book> books = new ArrayList<>();
-    private Long nextId = 4L;
+    // Scans resolved per batch lookup request
+    private static final int MAX_ISBN_LOOKUP_BATCH = 1_000;
+
+    // Largest page of autocomplete suggestions
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 50;
+
+    // Thread-safe in-memory store of books, indexed by ID and ISBN
+    private final BookRepository books = new BookRepository();
+
+    // Pre-serialized JSON of single books, invalidated whenever a book changes
+    private final JsonCache bookJson;
 
     // Initialize with sample data
-    public BookController() {
-        books.add(new Book(1L, "Clean Code", "Robert Martin", "978-0132350884", 2008));
-        books.add(new Book(2L, "Effective Java", "Joshua Bloch", "978-0134685991", 2017));
-        books.add(new Book(3L, "Design Patterns", "Gang of Four", "978-0201633612", 1994));
+    public BookController(ObjectMapper objectMapper) {
+        this.bookJson = new JsonCache(objectMapper);
+
+        books.load(new Book(1L, "Clean Code", "Robert Martin", "978-0132350884", 2008));
+        books.load(new Book(2L, "Effective Java", "Joshua Bloch", "978-0134685991", 2017));
+        books.load(new Book(3L, "Design Patterns", "Gang of Four", "978-0201633612", 1994));
     }
 
     /**
@@ -32,20 +50,18 @@ public class BookController {
      */
     @GetMapping
     public ResponseEntity<List<Book>> getAllBooks() {
-        return new ResponseEntity<>(books, HttpStatus.OK);
+        return new ResponseEntity<>(books.findAll(), HttpStatus.OK);
     }
 
     /**
      * GET /api/books/{id} - Return a specific book by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
-        Optional<Book> book = books.stream()
-                .filter(b -> b.getId().equals(id))
-                .findFirst();
+    public ResponseEntity<byte[]> getBookById(@PathVariable Long id) {
+        byte[] json = bookJson.get(id, () -> books.findById(id).orElse(null));
         
-        if (book.isPresent()) {
-            return new ResponseEntity<>(book.get(), HttpStatus.OK);
+        if (json != null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -57,7 +73,7 @@ public class BookController {
     @GetMapping("/search")
     public ResponseEntity<List<Book>> searchBooksByTitle(@RequestParam String title) {
         List<Book> result = new ArrayList<>();
-        for (Book book : books) {
+        for (Book book : books.values()) {
             if (book.getTitle().toLowerCase().contains(title.toLowerCase())) {
                 result.add(book);
             }
@@ -65,13 +81,88 @@ public class BookController {
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
+    /**
+     * GET /api/books/autocomplete?prefix={prefix}&limit={limit} - Suggest books whose title has a word
+     * starting with the prefix (earlier words of a multi-word prefix must match whole words)
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<Book>> autocompleteTitles(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > MAX_AUTOCOMPLETE_LIMIT) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(books.autocomplete(prefix, limit), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/books/year-range?from={from}&to={to} - Return books published between two years (inclusive),
+     * ordered by year
+     */
+    @GetMapping("/year-range")
+    public ResponseEntity<List<Book>> getBooksByYearRange(@RequestParam int from, @RequestParam int to) {
+        if (from > to) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(books.findByYearRange(from, to), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/books/year-histogram - Return the number of books per publication year
+     */
+    @GetMapping("/year-histogram")
+    public ResponseEntity<List<YearCount>> getYearHistogram() {
+        return new ResponseEntity<>(books.yearHistogram(), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/books/isbn/{isbn} - Return the book with an ISBN-10 or ISBN-13, hyphens optional
+     */
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<byte[]> getBookByIsbn(@PathVariable String isbn) {
+        long isbnKey = Isbn.toKey(isbn);
+        if (isbnKey == Isbn.INVALID) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        
+        Optional<Book> book = books.findByIsbnKey(isbnKey);
+        if (book.isPresent()) {
+            byte[] json = bookJson.get(book.get().getId(), book::get);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+        } else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * POST /api/books/isbn/lookup - Resolve a batch of scanned ISBNs; results keep the request order
+     * and carry a null book for unknown or malformed ISBNs
+     */
+    @PostMapping("/isbn/lookup")
+    public ResponseEntity<List<IsbnLookup>> lookupIsbns(@RequestBody List<String> isbns) {
+        if (isbns.size() > MAX_ISBN_LOOKUP_BATCH) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        
+        List<IsbnLookup> result = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            result.add(new IsbnLookup(isbn, books.findByIsbn(isbn).orElse(null)));
+        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     /**
      * POST /api/books - Add a new book
      */
     @PostMapping
     public ResponseEntity<Book> addBook(@RequestBody Book book) {
-        book.setId(nextId++);
-        books.add(book);
+        try {
+            books.add(book);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (DuplicateIsbnException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
         return new ResponseEntity<>(book, HttpStatus.CREATED);
     }
 
@@ -80,9 +171,10 @@ public class BookController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-        boolean removed = books.removeIf(book -> book.getId().equals(id));
+        boolean removed = books.remove(id);
         
         if (removed) {
+            bookJson.remove(id);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
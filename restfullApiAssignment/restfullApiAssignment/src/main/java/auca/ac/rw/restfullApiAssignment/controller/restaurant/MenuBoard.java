@@ -0,0 +1,89 @@
+package auca.ac.rw.restfullApiAssignment.controller.restaurant;
+
+import auca.ac.rw.restfullApiAssignment.modal.restaurant.MenuItem;
+import auca.ac.rw.restfullApiAssignment.repository.restaurant.MenuRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-rendered JSON of the menu views screens poll: the full list, the available and
+ * unavailable lists, and the menu grouped by category. All of them are rendered together
+ * in one pass, on the first read after the menu version changes; until then every poll
+ * is served the same bytes.
+ */
+class MenuBoard {
+
+    private final MenuRepository menu;
+    private final ObjectWriter writer;
+
+    private volatile Rendered rendered;
+
+    MenuBoard(MenuRepository menu, ObjectMapper objectMapper) {
+        this.menu = menu;
+        this.writer = objectMapper.writer();
+    }
+
+    byte[] all() {
+        return current().all();
+    }
+
+    byte[] available(boolean available) {
+        Rendered current = current();
+        return available ? current.available() : current.unavailable();
+    }
+
+    /**
+     * {"category": [items...], ...} in the order categories first appear on the menu
+     */
+    byte[] byCategory() {
+        return current().byCategory();
+    }
+
+    private Rendered current() {
+        // Read the version before the items: a render can only be newer than its label, never older
+        long version = menu.version().current();
+        Rendered current = rendered;
+        if (current != null && current.version() == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = rendered;
+            if (current == null || current.version() != version) {
+                current = render(version);
+                rendered = current;
+            }
+            return current;
+        }
+    }
+
+    private Rendered render(long version) {
+        List<MenuItem> all = new ArrayList<>();
+        List<MenuItem> available = new ArrayList<>();
+        List<MenuItem> unavailable = new ArrayList<>();
+        Map<String, List<MenuItem>> byCategory = new LinkedHashMap<>();
+        for (MenuItem item : menu.values()) {
+            all.add(item);
+            (item.isAvailable() ? available : unavailable).add(item);
+            byCategory.computeIfAbsent(String.valueOf(item.getCategory()), c -> new ArrayList<>()).add(item);
+        }
+        return new Rendered(version, write(all), write(available), write(unavailable), write(byCategory));
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Rendered(long version, byte[] all, byte[] available, byte[] unavailable, byte[] byCategory) {
+    }
+}
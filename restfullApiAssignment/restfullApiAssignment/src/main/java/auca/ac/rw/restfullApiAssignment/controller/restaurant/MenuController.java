@@ -1,10 +1,19 @@
 package auca.ac.rw.restfullApiAssignment.controller.restaurant;
 
+import auca.ac.rw.restfullApiAssignment.modal.restaurant.AvailabilityChange;
 import auca.ac.rw.restfullApiAssignment.modal.restaurant.MenuItem;
+import auca.ac.rw.restfullApiAssignment.repository.restaurant.MenuRepository;
+import auca.ac.rw.restfullApiAssignment.support.JsonCache;
+import auca.ac.rw.restfullApiAssignment.support.SseBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -16,72 +25,95 @@ import java.util.Optional;
 @RequestMapping("/api/menu")
 public class MenuController {
 
-    // In-memory list to store menu items
-    private List<MenuItem> menuItems = new ArrayList<>();
-    private Long nextId = 9L;
+    // Thread-safe in-memory store of menu items; its version is the ETag of the full list
+    private final MenuRepository menuItems = new MenuRepository();
+
+    // Pre-serialized JSON of single menu items, invalidated whenever an item changes
+    private final JsonCache menuItemJson;
+
+    // Pre-rendered list views, re-rendered only after the menu changes
+    private final MenuBoard menuBoard;
+
+    // Screens subscribed to /api/menu/stream
+    private final SseBroadcaster screens = new SseBroadcaster("menu");
 
     // Initialize with sample data
-    public MenuController() {
-        menuItems.add(new MenuItem(1L, "Caesar Salad", "Fresh romaine lettuce with Caesar dressing", 8.99, "Appetizer", true));
-        menuItems.add(new MenuItem(2L, "Garlic Bread", "Toasted bread with garlic butter", 5.99, "Appetizer", true));
-        menuItems.add(new MenuItem(3L, "Grilled Salmon", "Atlantic salmon with lemon butter sauce", 22.99, "Main Course", true));
-        menuItems.add(new MenuItem(4L, "Beef Steak", "Premium ribeye steak with vegetables", 28.99, "Main Course", true));
-        menuItems.add(new MenuItem(5L, "Margherita Pizza", "Classic pizza with tomato, mozzarella, and basil", 14.99, "Main Course", false));
-        menuItems.add(new MenuItem(6L, "Chocolate Cake", "Rich chocolate cake with vanilla ice cream", 7.99, "Dessert", true));
-        menuItems.add(new MenuItem(7L, "Tiramisu", "Italian coffee-flavored dessert", 8.99, "Dessert", true));
-        menuItems.add(new MenuItem(8L, "Lemonade", "Fresh squeezed lemonade", 3.99, "Beverage", true));
+    public MenuController(ObjectMapper objectMapper) {
+        this.menuItemJson = new JsonCache(objectMapper);
+        this.menuBoard = new MenuBoard(menuItems, objectMapper);
+
+        menuItems.load(new MenuItem(1L, "Caesar Salad", "Fresh romaine lettuce with Caesar dressing", 8.99, "Appetizer", true));
+        menuItems.load(new MenuItem(2L, "Garlic Bread", "Toasted bread with garlic butter", 5.99, "Appetizer", true));
+        menuItems.load(new MenuItem(3L, "Grilled Salmon", "Atlantic salmon with lemon butter sauce", 22.99, "Main Course", true));
+        menuItems.load(new MenuItem(4L, "Beef Steak", "Premium ribeye steak with vegetables", 28.99, "Main Course", true));
+        menuItems.load(new MenuItem(5L, "Margherita Pizza", "Classic pizza with tomato, mozzarella, and basil", 14.99, "Main Course", false));
+        menuItems.load(new MenuItem(6L, "Chocolate Cake", "Rich chocolate cake with vanilla ice cream", 7.99, "Dessert", true));
+        menuItems.load(new MenuItem(7L, "Tiramisu", "Italian coffee-flavored dessert", 8.99, "Dessert", true));
+        menuItems.load(new MenuItem(8L, "Lemonade", "Fresh squeezed lemonade", 3.99, "Beverage", true));
     }
 
     /**
-     * GET /api/menu - Get all menu items
+     * GET /api/menu - Get all menu items (ETag / If-None-Match aware)
      */
     @GetMapping
-    public ResponseEntity<List<MenuItem>> getAllMenuItems() {
-        return new ResponseEntity<>(menuItems, HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllMenuItems(WebRequest request) {
+        if (request.checkNotModified(menuItems.version().eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(menuBoard.all());
+    }
+
+    /**
+     * GET /api/menu/board - Get the whole menu grouped by category (ETag / If-None-Match aware)
+     */
+    @GetMapping("/board")
+    public ResponseEntity<byte[]> getMenuBoard(WebRequest request) {
+        if (request.checkNotModified(menuItems.version().eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(menuBoard.byCategory());
+    }
+
+    /**
+     * GET /api/menu/stream - Server-Sent Events for menu screens: a "board" event with the grouped menu
+     * on connect, then "availability", "added" and "removed" events as the menu changes
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMenu() {
+        return screens.connect("board", () -> new String(menuBoard.byCategory(), StandardCharsets.UTF_8));
     }
 
     /**
      * GET /api/menu/{id} - Get specific menu item
      */
     @GetMapping("/{id}")
-    public ResponseEntity<MenuItem> getMenuItemById(@PathVariable Long id) {
-        Optional<MenuItem> menuItem = menuItems.stream()
-                .filter(item -> item.getId().equals(id))
-                .findFirst();
+    public ResponseEntity<byte[]> getMenuItemById(@PathVariable Long id) {
+        byte[] json = menuItemJson.get(id, () -> menuItems.findById(id).orElse(null));
         
-        if (menuItem.isPresent()) {
-            return new ResponseEntity<>(menuItem.get(), HttpStatus.OK);
+        if (json != null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
     /**
-     * GET /api/menu/category/{category} - Get items by category
+     * GET /api/menu/category/{category}?available={available} - Get items by category,
+     * optionally only available or unavailable ones
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByCategory(@PathVariable String category) {
-        List<MenuItem> result = new ArrayList<>();
-        for (MenuItem item : menuItems) {
-            if (item.getCategory().equalsIgnoreCase(category)) {
-                result.add(item);
-            }
-        }
-        return new ResponseEntity<>(result, HttpStatus.OK);
+    public ResponseEntity<List<MenuItem>> getMenuItemsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) Boolean available) {
+        return new ResponseEntity<>(menuItems.findByCategory(category, available), HttpStatus.OK);
     }
 
     /**
      * GET /api/menu/available - Get only available items
      */
     @GetMapping("/available")
-    public ResponseEntity<List<MenuItem>> getAvailableMenuItems(@RequestParam(defaultValue = "true") boolean available) {
-        List<MenuItem> result = new ArrayList<>();
-        for (MenuItem item : menuItems) {
-            if (item.isAvailable() == available) {
-                result.add(item);
-            }
-        }
-        return new ResponseEntity<>(result, HttpStatus.OK);
+    public ResponseEntity<byte[]> getAvailableMenuItems(@RequestParam(defaultValue = "true") boolean available) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(menuBoard.available(available));
     }
 
     /**
@@ -90,7 +122,7 @@ public class MenuController {
     @GetMapping("/search")
     public ResponseEntity<List<MenuItem>> searchMenuItemsByName(@RequestParam String name) {
         List<MenuItem> result = new ArrayList<>();
-        for (MenuItem item : menuItems) {
+        for (MenuItem item : menuItems.values()) {
             if (item.getName().toLowerCase().contains(name.toLowerCase())) {
                 result.add(item);
             }
@@ -103,8 +135,8 @@ public class MenuController {
      */
     @PostMapping
     public ResponseEntity<MenuItem> addMenuItem(@RequestBody MenuItem menuItem) {
-        menuItem.setId(nextId++);
         menuItems.add(menuItem);
+        screens.broadcast("added", menuItem);
         return new ResponseEntity<>(menuItem, HttpStatus.CREATED);
     }
 
@@ -113,13 +145,23 @@ public class MenuController {
      */
     @PutMapping("/{id}/availability")
     public ResponseEntity<MenuItem> toggleAvailability(@PathVariable Long id) {
-        for (MenuItem item : menuItems) {
-            if (item.getId().equals(id)) {
-                item.setAvailable(!item.isAvailable());
-                return new ResponseEntity<>(item, HttpStatus.OK);
-            }
-        }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return availabilityChanged(id, menuItems.toggleAvailability(id));
+    }
+
+    /**
+     * PUT /api/menu/{id}/set-available - Mark item available
+     */
+    @PutMapping("/{id}/set-available")
+    public ResponseEntity<MenuItem> setAvailable(@PathVariable Long id) {
+        return availabilityChanged(id, menuItems.setAvailability(id, true));
+    }
+
+    /**
+     * PUT /api/menu/{id}/set-unavailable - Mark item unavailable
+     */
+    @PutMapping("/{id}/set-unavailable")
+    public ResponseEntity<MenuItem> setUnavailable(@PathVariable Long id) {
+        return availabilityChanged(id, menuItems.setAvailability(id, false));
     }
 
     /**
@@ -127,12 +169,25 @@ public class MenuController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMenuItem(@PathVariable Long id) {
-        boolean removed = menuItems.removeIf(item -> item.getId().equals(id));
+        boolean removed = menuItems.remove(id);
         
         if (removed) {
+            menuItemJson.remove(id);
+            screens.broadcast("removed", id);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<MenuItem> availabilityChanged(Long id, Optional<MenuItem> item) {
+        if (item.isPresent()) {
+            menuItemJson.invalidate(id);
+            screens.broadcast("availability", () -> menuItems.findById(id)
+                    .map(current -> new AvailabilityChange(id, current.isAvailable()))
+                    .orElse(null));
+            return new ResponseEntity<>(item.get(), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+}
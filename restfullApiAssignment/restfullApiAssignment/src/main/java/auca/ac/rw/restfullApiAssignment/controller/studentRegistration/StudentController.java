@@ -1,13 +1,33 @@
 package auca.ac.rw.restfullApiAssignment.controller.studentRegistration;
 
+import auca.ac.rw.restfullApiAssignment.modal.common.ImportReport;
+import auca.ac.rw.restfullApiAssignment.modal.studentRegistration.MajorStatistics;
 import auca.ac.rw.restfullApiAssignment.modal.studentRegistration.Student;
+import auca.ac.rw.restfullApiAssignment.repository.studentRegistration.DuplicateStudentException;
+import auca.ac.rw.restfullApiAssignment.repository.studentRegistration.StudentRepository;
+import auca.ac.rw.restfullApiAssignment.support.CsvReader;
+import auca.ac.rw.restfullApiAssignment.support.JsonCache;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 /**
  * REST Controller for managing student registration
@@ -16,17 +36,32 @@ import java.util.Optional;
 @RequestMapping("/api/students")
 public class StudentController {
 
-    // In-memory list to store students
-    private List<Student> students = new ArrayList<>();
-    private Long nextId = 6L;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+    private static final int IMPORT_CHUNK_SIZE = 1_000;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    // Columns a CSV import may name in its header row; csvColumns returns their positions in this order
+    private static final List<String> CSV_COLUMNS = List.of("firstName", "lastName", "email", "major", "gpa");
+
+    // Thread-safe in-memory store of students, indexed by ID, major and GPA
+    private final StudentRepository students = new StudentRepository();
+
+    // Pre-serialized JSON of single students, invalidated whenever a student changes
+    private final JsonCache studentJson;
+
+    private final ObjectMapper objectMapper;
 
     // Initialize with sample data
-    public StudentController() {
-        students.add(new Student(1L, "John", "Doe", "john.doe@example.com", "Computer Science", 3.8));
-        students.add(new Student(2L, "Jane", "Smith", "jane.smith@example.com", "Computer Science", 3.9));
-        students.add(new Student(3L, "Michael", "Johnson", "michael.j@example.com", "Business Administration", 3.2));
-        students.add(new Student(4L, "Emily", "Davis", "emily.davis@example.com", "Engineering", 3.7));
-        students.add(new Student(5L, "David", "Wilson", "david.wilson@example.com", "Computer Science", 3.5));
+    public StudentController(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.studentJson = new JsonCache(objectMapper);
+
+        students.load(new Student(1L, "John", "Doe", "john.doe@example.com", "Computer Science", 3.8));
+        students.load(new Student(2L, "Jane", "Smith", "jane.smith@example.com", "Computer Science", 3.9));
+        students.load(new Student(3L, "Michael", "Johnson", "michael.j@example.com", "Business Administration", 3.2));
+        students.load(new Student(4L, "Emily", "Davis", "emily.davis@example.com", "Engineering", 3.7));
+        students.load(new Student(5L, "David", "Wilson", "david.wilson@example.com", "Computer Science", 3.5));
     }
 
     /**
@@ -34,20 +69,18 @@ public class StudentController {
      */
     @GetMapping
     public ResponseEntity<List<Student>> getAllStudents() {
-        return new ResponseEntity<>(students, HttpStatus.OK);
+        return new ResponseEntity<>(students.findAll(), HttpStatus.OK);
     }
 
     /**
      * GET /api/students/{studentId} - Get student by ID
      */
     @GetMapping("/{studentId}")
-    public ResponseEntity<Student> getStudentById(@PathVariable Long studentId) {
-        Optional<Student> student = students.stream()
-                .filter(s -> s.getStudentId().equals(studentId))
-                .findFirst();
+    public ResponseEntity<byte[]> getStudentById(@PathVariable Long studentId) {
+        byte[] json = studentJson.get(studentId, () -> students.findById(studentId).orElse(null));
         
-        if (student.isPresent()) {
-            return new ResponseEntity<>(student.get(), HttpStatus.OK);
+        if (json != null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -58,51 +91,281 @@ public class StudentController {
      */
     @GetMapping("/major/{major}")
     public ResponseEntity<List<Student>> getStudentsByMajor(@PathVariable String major) {
-        List<Student> result = new ArrayList<>();
-        for (Student student : students) {
-            if (student.getMajor().equalsIgnoreCase(major)) {
-                result.add(student);
-            }
-        }
-        return new ResponseEntity<>(result, HttpStatus.OK);
+        return new ResponseEntity<>(students.findByMajor(major), HttpStatus.OK);
     }
 
     /**
-     * GET /api/students/filter?gpa={minGpa} - Filter students with GPA >= minimum
+     * GET /api/students/filter?gpa={minGpa}&sort={desc|asc}&limit={limit} - Filter students with GPA >= minimum,
+     * highest GPA first unless sort=asc
      */
     @GetMapping("/filter")
-    public ResponseEntity<List<Student>> filterStudentsByGpa(@RequestParam Double gpa) {
-        List<Student> result = new ArrayList<>();
-        for (Student student : students) {
-            if (student.getGpa() >= gpa) {
-                result.add(student);
-            }
+    public ResponseEntity<List<Student>> filterStudentsByGpa(
+            @RequestParam double gpa,
+            @RequestParam(defaultValue = "desc") String sort,
+            @RequestParam(required = false) Integer limit) {
+        boolean ascending = sort.equalsIgnoreCase("asc");
+        if ((!ascending && !sort.equalsIgnoreCase("desc")) || (limit != null && limit <= 0)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
+        
+        List<Student> result = students.findByMinGpa(gpa, ascending, limit == null ? Integer.MAX_VALUE : limit);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
+    /**
+     * GET /api/students/top?n={n} - Get the n students with the highest GPA
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<Student>> getTopStudents(@RequestParam(defaultValue = "10") int n) {
+        if (n <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(students.findTopByGpa(n), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/students/percentile?p={p} - Get students at or above the p-th GPA percentile (0 <= p < 100),
+     * highest GPA first
+     */
+    @GetMapping("/percentile")
+    public ResponseEntity<List<Student>> getStudentsAbovePercentile(@RequestParam double p) {
+        if (!(p >= 0 && p < 100)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(students.findAtOrAbovePercentile(p), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/students/stats - Get count, mean / min / max GPA and GPA histogram per major
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<MajorStatistics>> getMajorStatistics() {
+        return new ResponseEntity<>(students.majorStatistics(), HttpStatus.OK);
+    }
+
     /**
      * POST /api/students - Register a new student
      */
     @PostMapping
     public ResponseEntity<Student> registerStudent(@RequestBody Student student) {
-        student.setStudentId(nextId++);
-        students.add(student);
+        try {
+            students.add(student);
+        } catch (DuplicateStudentException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
         return new ResponseEntity<>(student, HttpStatus.CREATED);
     }
 
+    /**
+     * POST /api/students/import - Register students from a CSV upload whose header row names the columns
+     * (firstName, lastName, email, major, gpa). Rows are read in chunks, validated in parallel
+     * and stored a chunk at a time, so memory does not grow with the upload.
+     */
+    @PostMapping(value = "/import", consumes = CSV)
+    public ResponseEntity<ImportReport> importStudentsCsv(InputStream body) throws IOException {
+        ImportReport report = new ImportReport();
+        ImportChunk chunk = new ImportChunk();
+        long row = 1;
+
+        try (CsvReader csv = new CsvReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String[] header = csv.next();
+            int[] columns = header == null ? null : csvColumns(header);
+            if (columns == null) {
+                report.addError(0, "Header row must name the columns firstName, lastName and email");
+                return new ResponseEntity<>(report, HttpStatus.BAD_REQUEST);
+            }
+
+            String[] fields;
+            while ((fields = csv.next()) != null) {
+                Student student = new Student(null, csvField(fields, columns[0]), csvField(fields, columns[1]),
+                        csvField(fields, columns[2]), csvField(fields, columns[3]), null);
+                String gpa = csvField(fields, columns[4]);
+                String problem = null;
+                if (gpa != null) {
+                    try {
+                        student.setGpa(Double.parseDouble(gpa));
+                    } catch (NumberFormatException e) {
+                        problem = "GPA must be a number: " + gpa;
+                    }
+                }
+                chunk.add(row++, student, problem);
+                if (chunk.isFull()) {
+                    importChunk(chunk, report);
+                }
+            }
+        } catch (CsvReader.MalformedCsvException e) {
+            // The reader cannot find the next record after an unterminated quote or an oversized
+            // field, so the import stops here; the rows before it are reported first
+            importChunk(chunk, report);
+            report.addError(row, "Malformed CSV: " + e.getMessage());
+        }
+
+        importChunk(chunk, report);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    /**
+     * POST /api/students/import - Register students from a JSON array or NDJSON body,
+     * validated and stored a chunk at a time like the CSV import
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<ImportReport> importStudentsJson(InputStream body) throws IOException {
+        ImportReport report = new ImportReport();
+        ImportChunk chunk = new ImportChunk();
+        long row = 1;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                JsonNode node = parser.readValueAsTree();
+                Student student = null;
+                String problem = null;
+                if (!node.isObject()) {
+                    problem = "Expected a JSON object";
+                } else {
+                    try {
+                        student = objectMapper.treeToValue(node, Student.class);
+                    } catch (JsonProcessingException e) {
+                        problem = e.getOriginalMessage();
+                    }
+                }
+                chunk.add(row++, student, problem);
+                if (chunk.isFull()) {
+                    importChunk(chunk, report);
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // The stream cannot be resynchronized after malformed JSON, so the import stops here;
+            // the rows before it are reported first
+            importChunk(chunk, report);
+            report.addError(row, "Malformed JSON: " + e.getOriginalMessage());
+        }
+
+        importChunk(chunk, report);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
     /**
      * PUT /api/students/{studentId} - Update student information
      */
     @PutMapping("/{studentId}")
     public ResponseEntity<Student> updateStudent(@PathVariable Long studentId, @RequestBody Student updatedStudent) {
-        for (int i = 0; i < students.size(); i++) {
-            if (students.get(i).getStudentId().equals(studentId)) {
-                updatedStudent.setStudentId(studentId);
-                students.set(i, updatedStudent);
-                return new ResponseEntity<>(updatedStudent, HttpStatus.OK);
-            }
+        Optional<Student> student;
+        try {
+            student = students.replace(studentId, updatedStudent);
+        } catch (DuplicateStudentException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        if (student.isPresent()) {
+            studentJson.invalidate(studentId);
+            return new ResponseEntity<>(student.get(), HttpStatus.OK);
         }
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
-}
\ No newline at end of file
+
+    // Validate every row of the chunk in parallel, store the valid ones as one batch and report the rest in row order
+    private void importChunk(ImportChunk chunk, ImportReport report) {
+        if (chunk.size == 0) {
+            return;
+        }
+        IntStream.range(0, chunk.size).parallel().forEach(i -> {
+            if (chunk.problems[i] == null) {
+                chunk.problems[i] = validateImportedStudent(chunk.students[i]);
+            }
+        });
+
+        List<Student> batch = new ArrayList<>(chunk.size);
+        int[] positions = new int[chunk.size];
+        for (int i = 0; i < chunk.size; i++) {
+            if (chunk.problems[i] == null) {
+                positions[batch.size()] = i;
+                batch.add(chunk.students[i]);
+            }
+        }
+        // Emails registered meanwhile, or repeated within the chunk, are only caught under the write lock
+        BitSet duplicates = students.addAll(batch);
+        for (int d = duplicates.nextSetBit(0); d >= 0; d = duplicates.nextSetBit(d + 1)) {
+            chunk.problems[positions[d]] = "Duplicate email: " + batch.get(d).getEmail();
+        }
+
+        for (int i = 0; i < chunk.size; i++) {
+            if (chunk.problems[i] != null) {
+                report.addError(chunk.rows[i], chunk.problems[i]);
+            }
+        }
+        report.addImported(batch.size() - duplicates.cardinality());
+        chunk.clear();
+    }
+
+    private String validateImportedStudent(Student student) {
+        if (student.getFirstName() == null || student.getFirstName().isBlank()) {
+            return "First name is required";
+        }
+        if (student.getLastName() == null || student.getLastName().isBlank()) {
+            return "Last name is required";
+        }
+        if (student.getEmail() == null || !EMAIL.matcher(student.getEmail()).matches()) {
+            return "Email is not a valid address: " + student.getEmail();
+        }
+        if (student.getGpa() != null && !(student.getGpa() >= 0 && student.getGpa() <= MajorStatistics.MAX_GPA)) {
+            return "GPA must be between 0 and 4: " + student.getGpa();
+        }
+        if (students.existsByEmail(student.getEmail())) {
+            return "Duplicate email: " + student.getEmail();
+        }
+        return null;
+    }
+
+    // Index of each CSV_COLUMNS entry in the header (-1 when absent), or null when a required column is missing
+    private static int[] csvColumns(String[] header) {
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = -1;
+            for (int h = 0; h < header.length; h++) {
+                if (header[h].trim().equalsIgnoreCase(CSV_COLUMNS.get(c))) {
+                    columns[c] = h;
+                }
+            }
+        }
+        return columns[0] < 0 || columns[1] < 0 || columns[2] < 0 ? null : columns;
+    }
+
+    // Trimmed field value, null when the column is absent or the field is empty
+    private static String csvField(String[] fields, int column) {
+        if (column < 0 || column >= fields.length) {
+            return null;
+        }
+        String value = fields[column].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Rows of an import waiting to be validated and stored; reused for every chunk
+    private static final class ImportChunk {
+        private final long[] rows = new long[IMPORT_CHUNK_SIZE];
+        private final Student[] students = new Student[IMPORT_CHUNK_SIZE];
+        private final String[] problems = new String[IMPORT_CHUNK_SIZE];
+        private int size;
+
+        void add(long row, Student student, String problem) {
+            rows[size] = row;
+            students[size] = student;
+            problems[size] = problem;
+            size++;
+        }
+
+        boolean isFull() {
+            return size == IMPORT_CHUNK_SIZE;
+        }
+
+        void clear() {
+            Arrays.fill(students, 0, size, null);
+            Arrays.fill(problems, 0, size, null);
+            size = 0;
+        }
+    }
+}
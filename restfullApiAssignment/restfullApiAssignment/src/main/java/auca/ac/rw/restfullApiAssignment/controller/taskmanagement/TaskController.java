@@ -1,11 +1,19 @@
 package auca.ac.rw.restfullApiAssignment.controller.taskmanagement;
 
 import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.Task;
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.TaskCounts;
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.TaskPriority;
+import auca.ac.rw.restfullApiAssignment.repository.taskmanagement.TaskRepository;
+import auca.ac.rw.restfullApiAssignment.support.JsonCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,38 +24,44 @@ import java.util.Optional;
 @RequestMapping("/api/tasks")
 public class TaskController {
 
-    // In-memory list to store tasks
-    private List<Task> tasks = new ArrayList<>();
-    private Long nextId = 6L;
+    // In-memory store, partitioned by priority and status and indexing open tasks by due date;
+    // its version is the ETag of the full list
+    private final TaskRepository tasks = new TaskRepository();
+
+    // Pre-serialized JSON of single tasks, invalidated whenever a task changes
+    private final JsonCache taskJson;
 
     // Initialize with sample data
-    public TaskController() {
-        tasks.add(new Task(1L, "Complete Spring Boot Assignment", "Finish all 5 questions for the RESTful API assignment", false, "HIGH", "2026-02-15"));
-        tasks.add(new Task(2L, "Review Java Documentation", "Read and understand Java 17 new features", false, "MEDIUM", "2026-02-20"));
-        tasks.add(new Task(3L, "Setup Development Environment", "Install IntelliJ IDEA and configure Maven", true, "HIGH", "2026-02-05"));
-        tasks.add(new Task(4L, "Learn Docker Basics", "Complete Docker tutorial and create first container", false, "LOW", "2026-02-28"));
-        tasks.add(new Task(5L, "Practice Algorithm Problems", "Solve 5 LeetCode problems on arrays", false, "MEDIUM", "2026-02-18"));
+    public TaskController(ObjectMapper objectMapper) {
+        this.taskJson = new JsonCache(objectMapper);
+
+        tasks.load(new Task(1L, "Complete Spring Boot Assignment", "Finish all 5 questions for the RESTful API assignment", false, "HIGH", "2026-02-15"));
+        tasks.load(new Task(2L, "Review Java Documentation", "Read and understand Java 17 new features", false, "MEDIUM", "2026-02-20"));
+        tasks.load(new Task(3L, "Setup Development Environment", "Install IntelliJ IDEA and configure Maven", true, "HIGH", "2026-02-05"));
+        tasks.load(new Task(4L, "Learn Docker Basics", "Complete Docker tutorial and create first container", false, "LOW", "2026-02-28"));
+        tasks.load(new Task(5L, "Practice Algorithm Problems", "Solve 5 LeetCode problems on arrays", false, "MEDIUM", "2026-02-18"));
     }
 
     /**
-     * GET /api/tasks - Get all tasks
+     * GET /api/tasks - Get all tasks (ETag / If-None-Match aware)
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        return new ResponseEntity<>(tasks, HttpStatus.OK);
+    public ResponseEntity<List<Task>> getAllTasks(WebRequest request) {
+        if (request.checkNotModified(tasks.version().eTag())) {
+            return null;
+        }
+        return new ResponseEntity<>(tasks.findAll(), HttpStatus.OK);
     }
 
     /**
      * GET /api/tasks/{taskId} - Get task by ID
      */
     @GetMapping("/{taskId}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long taskId) {
-        Optional<Task> task = tasks.stream()
-                .filter(t -> t.getTaskId().equals(taskId))
-                .findFirst();
-        
-        if (task.isPresent()) {
-            return new ResponseEntity<>(task.get(), HttpStatus.OK);
+    public ResponseEntity<byte[]> getTaskById(@PathVariable Long taskId) {
+        byte[] json = taskJson.get(taskId, () -> tasks.findById(taskId).orElse(null));
+
+        if (json != null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -58,39 +72,94 @@ public class TaskController {
      */
     @GetMapping("/status")
     public ResponseEntity<List<Task>> getTasksByStatus(@RequestParam boolean completed) {
-        List<Task> result = new ArrayList<>();
-        
-        for (Task task : tasks) {
-            if (task.isCompleted() == completed) {
-                result.add(task);
-            }
-        }
-        return new ResponseEntity<>(result, HttpStatus.OK);
+        return new ResponseEntity<>(tasks.findBy(null, completed), HttpStatus.OK);
     }
 
     /**
-     * GET /api/tasks/priority/{priority} - Get tasks by priority
+     * GET /api/tasks/priority/{priority} - Get tasks by priority (case-insensitive);
+     * an unknown priority is a bad request, as it is when creating a task
      */
     @GetMapping("/priority/{priority}")
     public ResponseEntity<List<Task>> getTasksByPriority(@PathVariable String priority) {
-        List<Task> result = new ArrayList<>();
-        
-        for (Task task : tasks) {
-            if (task.getPriority().equalsIgnoreCase(priority)) {
-                result.add(task);
+        TaskPriority parsed = TaskPriority.parse(priority);
+        if (parsed == null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(tasks.findBy(parsed, null), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/tasks/filter?priority={priority}&completed={true/false} - Get tasks by priority
+     * and/or completion status, both optional; an unknown priority is a bad request
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<List<Task>> filterTasks(@RequestParam(required = false) String priority,
+                                                  @RequestParam(required = false) Boolean completed) {
+        TaskPriority parsed = null;
+        if (priority != null) {
+            parsed = TaskPriority.parse(priority);
+            if (parsed == null) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
             }
         }
+        return new ResponseEntity<>(tasks.findBy(parsed, completed), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/tasks/counts - Get the number of open and completed tasks per priority, with totals
+     */
+    @GetMapping("/counts")
+    public ResponseEntity<TaskCounts> getTaskCounts() {
+        return new ResponseEntity<>(tasks.counts(), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/tasks/overdue - Get incomplete tasks whose due date has passed, oldest due date first
+     */
+    @GetMapping("/overdue")
+    public ResponseEntity<List<Task>> getOverdueTasks() {
+        return new ResponseEntity<>(tasks.findOverdue(LocalDate.now().toEpochDay()), HttpStatus.OK);
+    }
+
+    /**
+     * GET /api/tasks/due?after={date}&before={date}&limit={limit} - Get incomplete tasks due strictly
+     * between the given ISO dates (either bound optional), soonest first
+     */
+    @GetMapping("/due")
+    public ResponseEntity<List<Task>> getTasksDueBetween(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+            @RequestParam(required = false) Integer limit) {
+        if (limit != null && limit <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        long fromDay = after == null ? Long.MIN_VALUE : after.toEpochDay() + 1;
+        long toDay = before == null ? Long.MAX_VALUE : before.toEpochDay() - 1;
+        List<Task> result = tasks.findDueBetween(fromDay, toDay, limit == null ? Integer.MAX_VALUE : limit);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
 
+    /**
+     * GET /api/tasks/due/next?n={n} - Get the n incomplete tasks due soonest, from today on
+     */
+    @GetMapping("/due/next")
+    public ResponseEntity<List<Task>> getNextDueTasks(@RequestParam(defaultValue = "5") int n) {
+        if (n <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(tasks.findNextDue(LocalDate.now().toEpochDay(), n), HttpStatus.OK);
+    }
+
     /**
      * POST /api/tasks - Create new task
      */
     @PostMapping
     public ResponseEntity<Task> createTask(@RequestBody Task task) {
-        task.setTaskId(nextId++);
-        tasks.add(task);
-        return new ResponseEntity<>(task, HttpStatus.CREATED);
+        try {
+            return new ResponseEntity<>(tasks.add(task), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     /**
@@ -98,14 +167,16 @@ public class TaskController {
      */
     @PutMapping("/{taskId}")
     public ResponseEntity<Task> updateTask(@PathVariable Long taskId, @RequestBody Task updatedTask) {
-        for (int i = 0; i < tasks.size(); i++) {
-            if (tasks.get(i).getTaskId().equals(taskId)) {
-                updatedTask.setTaskId(taskId);
-                tasks.set(i, updatedTask);
-                return new ResponseEntity<>(updatedTask, HttpStatus.OK);
-            }
+        Optional<Task> replaced;
+        try {
+            replaced = tasks.replace(taskId, updatedTask);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        replaced.ifPresent(task -> taskJson.invalidate(taskId));
+        return replaced
+                .map(task -> new ResponseEntity<>(task, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -113,13 +184,11 @@ public class TaskController {
      */
     @PatchMapping("/{taskId}/complete")
     public ResponseEntity<Task> markTaskAsCompleted(@PathVariable Long taskId) {
-        for (Task task : tasks) {
-            if (task.getTaskId().equals(taskId)) {
-                task.setCompleted(true);
-                return new ResponseEntity<>(task, HttpStatus.OK);
-            }
-        }
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        Optional<Task> completed = tasks.complete(taskId);
+        completed.ifPresent(task -> taskJson.invalidate(taskId));
+        return completed
+                .map(task -> new ResponseEntity<>(task, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -127,12 +196,13 @@ public class TaskController {
      */
     @DeleteMapping("/{taskId}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long taskId) {
-        boolean removed = tasks.removeIf(task -> task.getTaskId().equals(taskId));
-        
+        boolean removed = tasks.remove(taskId);
+
         if (removed) {
+            taskJson.remove(taskId);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,29 @@
 package auca.ac.rw.restfullApiAssignment.controller.userprofile;
 
 import auca.ac.rw.restfullApiAssignment.modal.userprofile.ApiResponse;
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.BulkUserRequest;
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.BulkUserResult;
 import auca.ac.rw.restfullApiAssignment.modal.userprofile.UserProfile;
+import auca.ac.rw.restfullApiAssignment.repository.userprofile.DuplicateUserException;
+import auca.ac.rw.restfullApiAssignment.repository.userprofile.UserMatches;
+import auca.ac.rw.restfullApiAssignment.repository.userprofile.UserProfileRepository;
+import auca.ac.rw.restfullApiAssignment.support.ApiResponseWriter;
+import auca.ac.rw.restfullApiAssignment.support.JsonCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeParseException;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * REST Controller for managing user profiles with ApiResponse wrapper
@@ -17,40 +32,72 @@ import java.util.Optional;
 @RequestMapping("/api/users")
 public class UserProfileController {
 
-    // In-memory list to store user profiles
-    private List<UserProfile> userProfiles = new ArrayList<>();
-    private Long nextId = 6L;
+    private static final SerializableString ALL_USERS_MESSAGE =
+            ApiResponseWriter.constant("Successfully retrieved all user profiles");
+
+    // Thread-safe in-memory store of user profiles with unique username / email indexes
+    private final UserProfileRepository userProfiles = new UserProfileRepository();
+
+    // Pre-serialized JSON of single-user responses, invalidated whenever a profile changes
+    private final JsonCache userJson;
+
+    // Streams list responses straight from the store
+    private final ApiResponseWriter listWriter;
+
+    // Renders the responses of byte[] endpoints that are not cached
+    private final ObjectMapper objectMapper;
 
     // Initialize with sample data
-    public UserProfileController() {
-        userProfiles.add(new UserProfile(1L, "john_doe", "john@example.com", "John Doe", 28, "USA", "Software developer passionate about Java and Spring Boot", true));
-        userProfiles.add(new UserProfile(2L, "jane_smith", "jane@example.com", "Jane Smith", 25, "Canada", "Tech enthusiast and full-stack developer", true));
-        userProfiles.add(new UserProfile(3L, "mike_wilson", "mike@example.com", "Mike Wilson", 32, "UK", "DevOps engineer with cloud expertise", true));
-        userProfiles.add(new UserProfile(4L, "sarah_jones", "sarah@example.com", "Sarah Jones", 29, "Australia", "Data scientist and machine learning expert", false));
-        userProfiles.add(new UserProfile(5L, "alex_brown", "alex@example.com", "Alex Brown", 27, "Germany", "Mobile app developer specializing in Android", true));
+    public UserProfileController(ObjectMapper objectMapper) {
+        this.userJson = new JsonCache(objectMapper);
+        this.listWriter = new ApiResponseWriter(objectMapper);
+        this.objectMapper = objectMapper;
+
+        userProfiles.load(new UserProfile(1L, "john_doe", "john@example.com", "John Doe", 28, "USA", "Software developer passionate about Java and Spring Boot", true));
+        userProfiles.load(new UserProfile(2L, "jane_smith", "jane@example.com", "Jane Smith", 25, "Canada", "Tech enthusiast and full-stack developer", true));
+        userProfiles.load(new UserProfile(3L, "mike_wilson", "mike@example.com", "Mike Wilson", 32, "UK", "DevOps engineer with cloud expertise", true));
+        userProfiles.load(new UserProfile(4L, "sarah_jones", "sarah@example.com", "Sarah Jones", 29, "Australia", "Data scientist and machine learning expert", false));
+        userProfiles.load(new UserProfile(5L, "alex_brown", "alex@example.com", "Alex Brown", 27, "Germany", "Mobile app developer specializing in Android", true));
     }
 
     /**
-     * GET /api/users - Get all user profiles
+     * GET /api/users - Get all user profiles (ETag / If-None-Match aware)
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<UserProfile>>> getAllUsers() {
-        ApiResponse<List<UserProfile>> response = new ApiResponse<>(
-            true,
-            "Successfully retrieved all user profiles",
-            userProfiles
-        );
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getAllUsers(WebRequest request) {
+        if (request.checkNotModified(userProfiles.version().eTag())) {
+            return null;
+        }
+        return listWriter.ok(ALL_USERS_MESSAGE, userProfiles.snapshot());
     }
 
     /**
      * GET /api/users/{userId} - Get user profile by ID
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<ApiResponse<UserProfile>> getUserById(@PathVariable Long userId) {
-        Optional<UserProfile> user = userProfiles.stream()
-                .filter(u -> u.getUserId().equals(userId))
-                .findFirst();
+    public ResponseEntity<byte[]> getUserById(@PathVariable Long userId) {
+        byte[] json = userJson.get(userId, () -> userProfiles.findById(userId)
+                .map(user -> new ApiResponse<>(true, "User profile found", user))
+                .orElse(null));
+        
+        if (json != null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+        } else {
+            ApiResponse<UserProfile> response = new ApiResponse<>(
+                false,
+                "User profile not found with ID: " + userId,
+                null
+            );
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(json(response));
+        }
+    }
+
+    /**
+     * GET /api/users/search/username/{username} - Search user by username
+     */
+    @GetMapping("/search/username/{username}")
+    public ResponseEntity<ApiResponse<UserProfile>> getUserByUsername(@PathVariable String username) {
+        Optional<UserProfile> user = userProfiles.findByUsername(username);
         
         if (user.isPresent()) {
             ApiResponse<UserProfile> response = new ApiResponse<>(
@@ -62,7 +109,7 @@ public class UserProfileController {
         } else {
             ApiResponse<UserProfile> response = new ApiResponse<>(
                 false,
-                "User profile not found with ID: " + userId,
+                "User profile not found with username: " + username,
                 null
             );
             return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
@@ -70,13 +117,11 @@ public class UserProfileController {
     }
 
     /**
-     * GET /api/users/search/username/{username} - Search user by username
+     * GET /api/users/search/email/{email} - Search user by email
      */
-    @GetMapping("/search/username/{username}")
-    public ResponseEntity<ApiResponse<UserProfile>> getUserByUsername(@PathVariable String username) {
-        Optional<UserProfile> user = userProfiles.stream()
-                .filter(u -> u.getUsername().equalsIgnoreCase(username))
-                .findFirst();
+    @GetMapping("/search/email/{email}")
+    public ResponseEntity<ApiResponse<UserProfile>> getUserByEmail(@PathVariable String email) {
+        Optional<UserProfile> user = userProfiles.findByEmail(email);
         
         if (user.isPresent()) {
             ApiResponse<UserProfile> response = new ApiResponse<>(
@@ -88,7 +133,7 @@ public class UserProfileController {
         } else {
             ApiResponse<UserProfile> response = new ApiResponse<>(
                 false,
-                "User profile not found with username: " + username,
+                "User profile not found with email: " + email,
                 null
             );
             return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
@@ -99,61 +144,61 @@ public class UserProfileController {
      * GET /api/users/search/country/{country} - Search users by country
      */
     @GetMapping("/search/country/{country}")
-    public ResponseEntity<ApiResponse<List<UserProfile>>> getUsersByCountry(@PathVariable String country) {
-        List<UserProfile> result = new ArrayList<>();
-        for (UserProfile user : userProfiles) {
-            if (user.getCountry().equalsIgnoreCase(country)) {
-                result.add(user);
-            }
-        }
-        
-        ApiResponse<List<UserProfile>> response = new ApiResponse<>(
-            true,
-            "Found " + result.size() + " user(s) from " + country,
-            result
-        );
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> getUsersByCountry(@PathVariable String country) {
+        UserMatches result = userProfiles.match(country, null, null, null);
+        return listWriter.ok("Found " + result.count() + " user(s) from " + country, result);
     }
 
     /**
      * GET /api/users/search/age-range?min={min}&max={max} - Search users by age range
      */
     @GetMapping("/search/age-range")
-    public ResponseEntity<ApiResponse<List<UserProfile>>> getUsersByAgeRange(
+    public ResponseEntity<StreamingResponseBody> getUsersByAgeRange(
             @RequestParam int min,
             @RequestParam int max) {
-        List<UserProfile> result = new ArrayList<>();
-        
-        for (UserProfile user : userProfiles) {
-            if (user.getAge() >= min && user.getAge() <= max) {
-                result.add(user);
-            }
-        }
-        
-        ApiResponse<List<UserProfile>> response = new ApiResponse<>(
-            true,
-            "Found " + result.size() + " user(s) in age range " + min + "-" + max,
-            result
-        );
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        UserMatches result = userProfiles.match(null, min, max, null);
+        return listWriter.ok("Found " + result.count() + " user(s) in age range " + min + "-" + max, result);
     }
 
     /**
      * GET /api/users/active - Get all active users
      */
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<List<UserProfile>>> getActiveUsers() {
-        List<UserProfile> result = new ArrayList<>();
-        for (UserProfile user : userProfiles) {
-            if (user.isActive()) {
-                result.add(user);
-            }
-        }
+    public ResponseEntity<StreamingResponseBody> getActiveUsers() {
+        UserMatches result = userProfiles.match(null, null, null, true);
+        return listWriter.ok("Found " + result.count() + " active user(s)", result);
+    }
+
+    /**
+     * GET /api/users/query?country={country}&minAge={minAge}&maxAge={maxAge}&active={active} -
+     * Search users by any combination of country, age range and active flag
+     */
+    @GetMapping("/query")
+    public ResponseEntity<StreamingResponseBody> queryUsers(
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) Boolean active) {
+        UserMatches result = userProfiles.match(country, minAge, maxAge, active);
+        return listWriter.ok("Found " + result.count() + " matching user(s)", result);
+    }
+
+    /**
+     * GET /api/users/query/count?country={country}&minAge={minAge}&maxAge={maxAge}&active={active} -
+     * Count users matching the filters without returning them
+     */
+    @GetMapping("/query/count")
+    public ResponseEntity<ApiResponse<Integer>> countUsers(
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) Boolean active) {
+        int count = userProfiles.count(country, minAge, maxAge, active);
         
-        ApiResponse<List<UserProfile>> response = new ApiResponse<>(
+        ApiResponse<Integer> response = new ApiResponse<>(
             true,
-            "Found " + result.size() + " active user(s)",
-            result
+            "Found " + count + " matching user(s)",
+            count
         );
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
@@ -163,13 +208,22 @@ public class UserProfileController {
      */
     @PostMapping
     public ResponseEntity<ApiResponse<UserProfile>> createUserProfile(@RequestBody UserProfile userProfile) {
-        userProfile.setUserId(nextId++);
-        userProfiles.add(userProfile);
+        UserProfile created;
+        try {
+            created = userProfiles.add(userProfile);
+        } catch (DuplicateUserException e) {
+            ApiResponse<UserProfile> response = new ApiResponse<>(
+                false,
+                e.getMessage(),
+                null
+            );
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        }
         
         ApiResponse<UserProfile> response = new ApiResponse<>(
             true,
             "User profile created successfully",
-            userProfile
+            created
         );
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
@@ -182,18 +236,27 @@ public class UserProfileController {
             @PathVariable Long userId,
             @RequestBody UserProfile updatedProfile) {
         
-        for (int i = 0; i < userProfiles.size(); i++) {
-            if (userProfiles.get(i).getUserId().equals(userId)) {
-                updatedProfile.setUserId(userId);
-                userProfiles.set(i, updatedProfile);
-                
-                ApiResponse<UserProfile> response = new ApiResponse<>(
-                    true,
-                    "User profile updated successfully",
-                    updatedProfile
-                );
-                return new ResponseEntity<>(response, HttpStatus.OK);
-            }
+        Optional<UserProfile> user;
+        try {
+            user = userProfiles.replace(userId, updatedProfile);
+        } catch (DuplicateUserException e) {
+            ApiResponse<UserProfile> response = new ApiResponse<>(
+                false,
+                e.getMessage(),
+                null
+            );
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        }
+        
+        if (user.isPresent()) {
+            userJson.invalidate(userId);
+            
+            ApiResponse<UserProfile> response = new ApiResponse<>(
+                true,
+                "User profile updated successfully",
+                user.get()
+            );
+            return new ResponseEntity<>(response, HttpStatus.OK);
         }
         
         ApiResponse<UserProfile> response = new ApiResponse<>(
@@ -209,17 +272,17 @@ public class UserProfileController {
      */
     @PatchMapping("/{userId}/activate")
     public ResponseEntity<ApiResponse<UserProfile>> activateUser(@PathVariable Long userId) {
-        for (UserProfile user : userProfiles) {
-            if (user.getUserId().equals(userId)) {
-                user.setActive(true);
-                
-                ApiResponse<UserProfile> response = new ApiResponse<>(
-                    true,
-                    "User profile activated successfully",
-                    user
-                );
-                return new ResponseEntity<>(response, HttpStatus.OK);
-            }
+        Optional<UserProfile> user = userProfiles.setActive(userId, true);
+        
+        if (user.isPresent()) {
+            userJson.invalidate(userId);
+            
+            ApiResponse<UserProfile> response = new ApiResponse<>(
+                true,
+                "User profile activated successfully",
+                user.get()
+            );
+            return new ResponseEntity<>(response, HttpStatus.OK);
         }
         
         ApiResponse<UserProfile> response = new ApiResponse<>(
@@ -235,17 +298,17 @@ public class UserProfileController {
      */
     @PatchMapping("/{userId}/deactivate")
     public ResponseEntity<ApiResponse<UserProfile>> deactivateUser(@PathVariable Long userId) {
-        for (UserProfile user : userProfiles) {
-            if (user.getUserId().equals(userId)) {
-                user.setActive(false);
-                
-                ApiResponse<UserProfile> response = new ApiResponse<>(
-                    true,
-                    "User profile deactivated successfully",
-                    user
-                );
-                return new ResponseEntity<>(response, HttpStatus.OK);
-            }
+        Optional<UserProfile> user = userProfiles.setActive(userId, false);
+        
+        if (user.isPresent()) {
+            userJson.invalidate(userId);
+            
+            ApiResponse<UserProfile> response = new ApiResponse<>(
+                true,
+                "User profile deactivated successfully",
+                user.get()
+            );
+            return new ResponseEntity<>(response, HttpStatus.OK);
         }
         
         ApiResponse<UserProfile> response = new ApiResponse<>(
@@ -261,9 +324,10 @@ public class UserProfileController {
      */
     @DeleteMapping("/{userId}")
     public ResponseEntity<ApiResponse<Void>> deleteUserProfile(@PathVariable Long userId) {
-        boolean removed = userProfiles.removeIf(user -> user.getUserId().equals(userId));
+        boolean removed = userProfiles.remove(userId);
         
         if (removed) {
+            userJson.remove(userId);
             ApiResponse<Void> response = new ApiResponse<>(
                 true,
                 "User profile deleted successfully",
@@ -279,4 +343,70 @@ public class UserProfileController {
             return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * POST /api/users/bulk/activate - Activate every user selected by IDs and/or filters
+     */
+    @PostMapping("/bulk/activate")
+    public ResponseEntity<ApiResponse<BulkUserResult>> bulkActivate(@RequestBody BulkUserRequest request) {
+        return bulk(request, "activated", () -> userProfiles.setActive(request, true), userJson::invalidate);
+    }
+
+    /**
+     * POST /api/users/bulk/deactivate - Deactivate every user selected by IDs and/or filters
+     */
+    @PostMapping("/bulk/deactivate")
+    public ResponseEntity<ApiResponse<BulkUserResult>> bulkDeactivate(@RequestBody BulkUserRequest request) {
+        return bulk(request, "deactivated", () -> userProfiles.setActive(request, false), userJson::invalidate);
+    }
+
+    /**
+     * POST /api/users/bulk/delete - Delete every user selected by IDs and/or filters
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<ApiResponse<BulkUserResult>> bulkDelete(@RequestBody BulkUserRequest request) {
+        return bulk(request, "deleted", () -> userProfiles.removeAll(request), userJson::remove);
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Refuse an empty selection so a bad request can never hit every user; changed IDs are then passed to the JSON cache
+    private ResponseEntity<ApiResponse<BulkUserResult>> bulk(BulkUserRequest request, String action,
+                                                             Supplier<UserProfileRepository.BulkUpdate> operation,
+                                                             Consumer<Long> cacheUpdate) {
+        if (request.selectsNothing()) {
+            ApiResponse<BulkUserResult> response = new ApiResponse<>(
+                false,
+                "Bulk request must give userIds or at least one filter",
+                null
+            );
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+
+        UserProfileRepository.BulkUpdate update;
+        try {
+            update = operation.get();
+        } catch (DateTimeParseException e) {
+            ApiResponse<BulkUserResult> response = new ApiResponse<>(
+                false,
+                "inactiveSince must be an ISO date (yyyy-MM-dd): " + request.getInactiveSince(),
+                null
+            );
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+        update.changedIds().forEach(cacheUpdate);
+
+        ApiResponse<BulkUserResult> response = new ApiResponse<>(
+            true,
+            update.changedIds().size() + " user profile(s) " + action,
+            new BulkUserResult(update.matched(), update.changedIds().size(), update.notFound())
+        );
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
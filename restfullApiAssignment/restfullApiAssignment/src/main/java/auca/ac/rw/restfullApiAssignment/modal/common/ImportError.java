@@ -0,0 +1,36 @@
+package auca.ac.rw.restfullApiAssignment.modal.common;
+
+/**
+ * ImportError describing why a single row of a bulk import was rejected
+ */
+public class ImportError {
+    private long row;
+    private String message;
+
+    // Default constructor
+    public ImportError() {
+    }
+
+    // Parameterized constructor
+    public ImportError(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
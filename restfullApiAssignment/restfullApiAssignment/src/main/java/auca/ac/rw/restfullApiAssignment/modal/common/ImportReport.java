@@ -0,0 +1,62 @@
+package auca.ac.rw.restfullApiAssignment.modal.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ImportReport summarizing a bulk import: row counts plus the first rejected rows
+ */
+public class ImportReport {
+    // Only the first errors are kept so the report stays small for any payload size
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private long imported;
+    private long failed;
+    private List<ImportError> errors = new ArrayList<>();
+
+    // Default constructor
+    public ImportReport() {
+    }
+
+    /**
+     * Count rows that were stored
+     */
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    /**
+     * Count a rejected row, keeping its details while there is room in the report
+     */
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ImportError(row, message));
+        }
+    }
+
+    // Getters and Setters
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportError> errors) {
+        this.errors = errors;
+    }
+}
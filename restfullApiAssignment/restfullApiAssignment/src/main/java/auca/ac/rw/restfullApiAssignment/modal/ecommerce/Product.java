@@ -1,5 +1,8 @@
 package auca.ac.rw.restfullApiAssignment.modal.ecommerce;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 /**
  * Product entity representing a product in the e-commerce catalog
  */
@@ -9,7 +12,8 @@ public class Product {
     private String description;
     private Double price;
     private String category;
-    private int stockQuantity;
+    // Shared with the product that replaces this one, so stock taken or returned through either is never lost
+    private Stock stock = new Stock();
     private String brand;
 
     // Default constructor
@@ -23,7 +27,7 @@ public class Product {
         this.description = description;
         this.price = price;
         this.category = category;
-        this.stockQuantity = stockQuantity;
+        this.stock.units = stockQuantity;
         this.brand = brand;
     }
 
@@ -69,11 +73,45 @@ public class Product {
     }
 
     public int getStockQuantity() {
-        return stockQuantity;
+        return stock.units;
     }
 
     public void setStockQuantity(int stockQuantity) {
-        this.stockQuantity = stockQuantity;
+        this.stock.units = stockQuantity;
+    }
+
+    /**
+     * Share the live stock of the product this one replaces, dropping this product's own count.
+     * Must be called before this product is published.
+     */
+    public void keepStockOf(Product previous) {
+        this.stock = previous.stock;
+    }
+
+    /**
+     * Atomically take quantity units out of stock, failing without change when fewer are left
+     *
+     * @throws IllegalArgumentException if quantity is not positive
+     */
+    public boolean tryTakeStock(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        int current;
+        do {
+            current = stock.units;
+            if (current < quantity) {
+                return false;
+            }
+        } while (!Stock.UNITS.compareAndSet(stock, current, current - quantity));
+        return true;
+    }
+
+    /**
+     * Atomically put quantity units back into stock
+     */
+    public void returnStock(int quantity) {
+        Stock.UNITS.getAndAdd(stock, quantity);
     }
 
     public String getBrand() {
@@ -83,4 +121,18 @@ public class Product {
     public void setBrand(String brand) {
         this.brand = brand;
     }
+
+    private static final class Stock {
+        private static final VarHandle UNITS;
+
+        static {
+            try {
+                UNITS = MethodHandles.lookup().findVarHandle(Stock.class, "units", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private volatile int units;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package auca.ac.rw.restfullApiAssignment.modal.ecommerce;
+
+import java.util.List;
+
+/**
+ * Reservation entity representing stock held for a cart until it is committed or released
+ */
+public class Reservation {
+    public static final String RESERVED = "RESERVED";
+    public static final String COMMITTED = "COMMITTED";
+    public static final String RELEASED = "RELEASED";
+
+    private String reservationId;
+    private List<ReservationItem> items;
+    private String status;
+
+    // Default constructor
+    public Reservation() {
+    }
+
+    // Parameterized constructor
+    public Reservation(String reservationId, List<ReservationItem> items, String status) {
+        this.reservationId = reservationId;
+        this.items = items;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public List<ReservationItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ReservationItem> items) {
+        this.items = items;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,36 @@
+package auca.ac.rw.restfullApiAssignment.modal.ecommerce;
+
+/**
+ * ReservationItem representing a quantity of one product held by a reservation
+ */
+public class ReservationItem {
+    private Long productId;
+    private int quantity;
+
+    // Default constructor
+    public ReservationItem() {
+    }
+
+    // Parameterized constructor
+    public ReservationItem(Long productId, int quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
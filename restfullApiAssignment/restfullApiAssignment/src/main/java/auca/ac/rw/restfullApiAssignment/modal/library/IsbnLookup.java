@@ -0,0 +1,36 @@
+package auca.ac.rw.restfullApiAssignment.modal.library;
+
+/**
+ * IsbnLookup pairing one scanned ISBN with the book it resolved to (null when not found)
+ */
+public class IsbnLookup {
+    private String isbn;
+    private Book book;
+
+    // Default constructor
+    public IsbnLookup() {
+    }
+
+    // Parameterized constructor
+    public IsbnLookup(String isbn, Book book) {
+        this.isbn = isbn;
+        this.book = book;
+    }
+
+    // Getters and Setters
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    public void setBook(Book book) {
+        this.book = book;
+    }
+}
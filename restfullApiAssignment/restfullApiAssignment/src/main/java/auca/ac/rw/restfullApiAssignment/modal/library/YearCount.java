@@ -0,0 +1,36 @@
+package auca.ac.rw.restfullApiAssignment.modal.library;
+
+/**
+ * YearCount holding the number of books published in one year
+ */
+public class YearCount {
+    private int year;
+    private int count;
+
+    // Default constructor
+    public YearCount() {
+    }
+
+    // Parameterized constructor
+    public YearCount(int year, int count) {
+        this.year = year;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,36 @@
+package auca.ac.rw.restfullApiAssignment.modal.restaurant;
+
+/**
+ * AvailabilityChange pushed to menu screens when an item is switched on or off
+ */
+public class AvailabilityChange {
+    private Long id;
+    private boolean available;
+
+    // Default constructor
+    public AvailabilityChange() {
+    }
+
+    // Parameterized constructor
+    public AvailabilityChange(Long id, boolean available) {
+        this.id = id;
+        this.available = available;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+}
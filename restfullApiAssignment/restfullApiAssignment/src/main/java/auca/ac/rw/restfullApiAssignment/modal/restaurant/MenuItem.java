@@ -9,7 +9,8 @@ public class MenuItem {
     private String description;
     private Double price;
     private String category;
-    private boolean available;
+    // Mirrors the store's availability bitset, which is the source of truth for concurrent toggles
+    private volatile boolean available;
 
     // Default constructor
     public MenuItem() {
@@ -0,0 +1,83 @@
+package auca.ac.rw.restfullApiAssignment.modal.studentRegistration;
+
+/**
+ * MajorStatistics summarizing the students of one major
+ */
+public class MajorStatistics {
+    // Upper bound of the GPA scale, split into half-point histogram buckets
+    public static final double MAX_GPA = 4.0;
+    public static final double BUCKET_WIDTH = 0.5;
+    public static final int BUCKETS = (int) (MAX_GPA / BUCKET_WIDTH);
+
+    private String major;
+    private int count;
+    // GPA figures cover only students that have a GPA; null when none do
+    private Double meanGpa;
+    private Double minGpa;
+    private Double maxGpa;
+    // histogram[i] counts GPAs in [i * 0.5, (i + 1) * 0.5); the last bucket also holds 4.0
+    private int[] histogram;
+
+    // Default constructor
+    public MajorStatistics() {
+    }
+
+    // Parameterized constructor
+    public MajorStatistics(String major, int count, Double meanGpa, Double minGpa, Double maxGpa, int[] histogram) {
+        this.major = major;
+        this.count = count;
+        this.meanGpa = meanGpa;
+        this.minGpa = minGpa;
+        this.maxGpa = maxGpa;
+        this.histogram = histogram;
+    }
+
+    // Getters and Setters
+    public String getMajor() {
+        return major;
+    }
+
+    public void setMajor(String major) {
+        this.major = major;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public Double getMeanGpa() {
+        return meanGpa;
+    }
+
+    public void setMeanGpa(Double meanGpa) {
+        this.meanGpa = meanGpa;
+    }
+
+    public Double getMinGpa() {
+        return minGpa;
+    }
+
+    public void setMinGpa(Double minGpa) {
+        this.minGpa = minGpa;
+    }
+
+    public Double getMaxGpa() {
+        return maxGpa;
+    }
+
+    public void setMaxGpa(Double maxGpa) {
+        this.maxGpa = maxGpa;
+    }
+
+    public int[] getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(int[] histogram) {
+        this.histogram = histogram;
+    }
+}
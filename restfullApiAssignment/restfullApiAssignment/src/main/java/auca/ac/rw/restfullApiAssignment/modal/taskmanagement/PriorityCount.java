@@ -0,0 +1,46 @@
+package auca.ac.rw.restfullApiAssignment.modal.taskmanagement;
+
+/**
+ * PriorityCount holding the number of open and completed tasks of one priority
+ */
+public class PriorityCount {
+    private TaskPriority priority;
+    private int open;
+    private int completed;
+
+    // Default constructor
+    public PriorityCount() {
+    }
+
+    // Parameterized constructor
+    public PriorityCount(TaskPriority priority, int open, int completed) {
+        this.priority = priority;
+        this.open = open;
+        this.completed = completed;
+    }
+
+    // Getters and Setters
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public int getOpen() {
+        return open;
+    }
+
+    public void setOpen(int open) {
+        this.open = open;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+}
@@ -0,0 +1,58 @@
+package auca.ac.rw.restfullApiAssignment.modal.taskmanagement;
+
+import java.util.List;
+
+/**
+ * TaskCounts holding the number of tasks per priority and completion status, with totals
+ */
+public class TaskCounts {
+    private int total;
+    private int open;
+    private int completed;
+    private List<PriorityCount> byPriority;
+
+    // Default constructor
+    public TaskCounts() {
+    }
+
+    // Parameterized constructor
+    public TaskCounts(int total, int open, int completed, List<PriorityCount> byPriority) {
+        this.total = total;
+        this.open = open;
+        this.completed = completed;
+        this.byPriority = byPriority;
+    }
+
+    // Getters and Setters
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getOpen() {
+        return open;
+    }
+
+    public void setOpen(int open) {
+        this.open = open;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    public List<PriorityCount> getByPriority() {
+        return byPriority;
+    }
+
+    public void setByPriority(List<PriorityCount> byPriority) {
+        this.byPriority = byPriority;
+    }
+}
@@ -0,0 +1,27 @@
+package auca.ac.rw.restfullApiAssignment.modal.taskmanagement;
+
+import java.util.Locale;
+
+/**
+ * Priority levels a task can have, lowest first
+ */
+public enum TaskPriority {
+    LOW,
+    MEDIUM,
+    HIGH;
+
+    /**
+     * Priority named by the given string (case-insensitive), or null when it names none
+     */
+    public static TaskPriority parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "LOW" -> LOW;
+            case "MEDIUM" -> MEDIUM;
+            case "HIGH" -> HIGH;
+            default -> null;
+        };
+    }
+}
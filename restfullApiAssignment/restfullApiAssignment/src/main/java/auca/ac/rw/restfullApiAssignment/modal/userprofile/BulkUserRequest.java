@@ -0,0 +1,77 @@
+package auca.ac.rw.restfullApiAssignment.modal.userprofile;
+
+import java.util.List;
+
+/**
+ * BulkUserRequest selecting the profiles a bulk operation applies to:
+ * explicit IDs and/or filters, all of which must match
+ */
+public class BulkUserRequest {
+    private List<Long> userIds;
+    private String country;
+    private Integer minAge;
+    private Integer maxAge;
+    // ISO date (yyyy-MM-dd): only profiles inactive since that day or earlier
+    private String inactiveSince;
+
+    // Default constructor
+    public BulkUserRequest() {
+    }
+
+    // Parameterized constructor
+    public BulkUserRequest(List<Long> userIds, String country, Integer minAge, Integer maxAge, String inactiveSince) {
+        this.userIds = userIds;
+        this.country = country;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.inactiveSince = inactiveSince;
+    }
+
+    /**
+     * True when neither IDs nor any filter were given
+     */
+    public boolean selectsNothing() {
+        return userIds == null && country == null && minAge == null && maxAge == null && inactiveSince == null;
+    }
+
+    // Getters and Setters
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public String getInactiveSince() {
+        return inactiveSince;
+    }
+
+    public void setInactiveSince(String inactiveSince) {
+        this.inactiveSince = inactiveSince;
+    }
+}
@@ -0,0 +1,49 @@
+package auca.ac.rw.restfullApiAssignment.modal.userprofile;
+
+/**
+ * BulkUserResult summarizing a bulk operation on user profiles
+ */
+public class BulkUserResult {
+    // Profiles selected by the request
+    private int matched;
+    // Selected profiles that were actually changed (already-active profiles are not re-activated)
+    private int affected;
+    // Requested IDs that do not exist
+    private int notFound;
+
+    // Default constructor
+    public BulkUserResult() {
+    }
+
+    // Parameterized constructor
+    public BulkUserResult(int matched, int affected, int notFound) {
+        this.matched = matched;
+        this.affected = affected;
+        this.notFound = notFound;
+    }
+
+    // Getters and Setters
+    public int getMatched() {
+        return matched;
+    }
+
+    public void setMatched(int matched) {
+        this.matched = matched;
+    }
+
+    public int getAffected() {
+        return affected;
+    }
+
+    public void setAffected(int affected) {
+        this.affected = affected;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(int notFound) {
+        this.notFound = notFound;
+    }
+}
@@ -12,6 +12,8 @@ public class UserProfile {
     private String country;
     private String bio;
     private boolean active;
+    // ISO date (yyyy-MM-dd) the profile was deactivated, null while active; maintained by the store
+    private String inactiveSince;
 
     // Default constructor
     public UserProfile() {
@@ -29,6 +31,12 @@ public class UserProfile {
         this.active = active;
     }
 
+    // Copy constructor
+    public UserProfile(UserProfile other) {
+        this(other.userId, other.username, other.email, other.fullName, other.age, other.country, other.bio, other.active);
+        this.inactiveSince = other.inactiveSince;
+    }
+
     // Getters and Setters
     public Long getUserId() {
         return userId;
@@ -93,4 +101,12 @@ public class UserProfile {
     public void setActive(boolean active) {
         this.active = active;
     }
-}
\ No newline at end of file
+
+    public String getInactiveSince() {
+        return inactiveSince;
+    }
+
+    public void setInactiveSince(String inactiveSince) {
+        this.inactiveSince = inactiveSince;
+    }
+}
@@ -0,0 +1,198 @@
+package auca.ac.rw.restfullApiAssignment.repository.ecommerce;
+
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar copy of the scan-relevant product fields: stock in a primitive array,
+ * category and brand as dictionary codes, plus a row-aligned reference to the
+ * stored product. Rows are kept in ID order (deletes leave a tombstone that is
+ * compacted away later), so a scan walks the arrays sequentially and picks up
+ * the product of each matching row directly, without a lookup by ID or a sort.
+ */
+class ProductColumns {
+
+    private static final int INITIAL_CAPACITY = 1_024;
+    private static final int NO_CODE = -1;
+
+    // Compact once at least this many rows, and at least half of all rows, are tombstones
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 64;
+
+    // Structural changes take the write lock; scans and stock refreshes share the read lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private AtomicIntegerArray stock = new AtomicIntegerArray(INITIAL_CAPACITY);
+    private int[] categoryCodes = new int[INITIAL_CAPACITY];
+    private int[] brandCodes = new int[INITIAL_CAPACITY];
+    // Stored product of each row, null for a tombstone
+    private Product[] products = new Product[INITIAL_CAPACITY];
+    private int size;
+    private int tombstones;
+
+    // False once a row was appended out of ID order (e.g. seed data loaded unsorted); scans then sort
+    private boolean inIdOrder = true;
+
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    private final Map<String, Integer> categoryDictionary = new HashMap<>();
+    private final Map<String, Integer> brandDictionary = new HashMap<>();
+
+    /**
+     * Insert the product's row or overwrite the row already stored for its ID
+     */
+    void put(Product product) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.get(product.getProductId());
+            if (row == null) {
+                ensureCapacity(size + 1);
+                if (size > 0 && product.getProductId() < ids[size - 1]) {
+                    inIdOrder = false;
+                }
+                row = size++;
+                rowsById.put(product.getProductId(), row);
+            }
+            ids[row] = product.getProductId();
+            stock.set(row, product.getStockQuantity());
+            categoryCodes[row] = encode(categoryDictionary, product.getCategory());
+            brandCodes[row] = encode(brandDictionary, product.getBrand());
+            products[row] = product;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Turn the product's row into a tombstone, compacting once tombstones make up half the rows
+     */
+    void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.remove(productId);
+            if (row == null) {
+                return;
+            }
+            products[row] = null;
+            stock.set(row, 0);
+            tombstones++;
+            if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones * 2 >= size) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copy the product's current stock into its column. Re-reading after the write means
+     * that once concurrent updates settle, the column holds the latest value.
+     */
+    void refreshStock(Product product) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowsById.get(product.getProductId());
+            if (row == null) {
+                return;
+            }
+            int quantity;
+            do {
+                quantity = product.getStockQuantity();
+                stock.set(row, quantity);
+            } while (quantity != product.getStockQuantity());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products with stock above zero, optionally limited to a category and/or brand, in ID order
+     */
+    List<Product> inStock(String category, String brand) {
+        lock.readLock().lock();
+        try {
+            int categoryCode = lookup(categoryDictionary, category);
+            int brandCode = lookup(brandDictionary, brand);
+            List<Product> matches = new ArrayList<>();
+            if ((category != null && categoryCode == NO_CODE) || (brand != null && brandCode == NO_CODE)) {
+                return matches;
+            }
+
+            // Tombstones have zero stock, so the stock test also skips them
+            for (int row = 0; row < size; row++) {
+                if (stock.get(row) > 0
+                        && (categoryCode == NO_CODE || categoryCodes[row] == categoryCode)
+                        && (brandCode == NO_CODE || brandCodes[row] == brandCode)) {
+                    matches.add(products[row]);
+                }
+            }
+            if (!inIdOrder) {
+                matches.sort(Comparator.comparing(Product::getProductId));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Slide the live rows down over the tombstones, keeping their order; caller holds the write lock
+    private void compact() {
+        int live = 0;
+        for (int row = 0; row < size; row++) {
+            if (products[row] == null) {
+                continue;
+            }
+            if (live != row) {
+                ids[live] = ids[row];
+                stock.set(live, stock.get(row));
+                categoryCodes[live] = categoryCodes[row];
+                brandCodes[live] = brandCodes[row];
+                products[live] = products[row];
+                rowsById.put(ids[live], live);
+            }
+            live++;
+        }
+        Arrays.fill(products, live, size, null);
+        size = live;
+        tombstones = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, grown);
+        categoryCodes = Arrays.copyOf(categoryCodes, grown);
+        brandCodes = Arrays.copyOf(brandCodes, grown);
+        products = Arrays.copyOf(products, grown);
+        AtomicIntegerArray grownStock = new AtomicIntegerArray(grown);
+        for (int row = 0; row < size; row++) {
+            grownStock.set(row, stock.get(row));
+        }
+        stock = grownStock;
+    }
+
+    private static int encode(Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        return dictionary.computeIfAbsent(value.toLowerCase(Locale.ROOT), v -> dictionary.size());
+    }
+
+    private static int lookup(Map<String, Integer> dictionary, String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        return dictionary.getOrDefault(value.toLowerCase(Locale.ROOT), NO_CODE);
+    }
+}
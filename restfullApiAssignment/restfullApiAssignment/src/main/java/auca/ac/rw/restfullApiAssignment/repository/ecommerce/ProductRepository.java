@@ -0,0 +1,334 @@
+package auca.ac.rw.restfullApiAssignment.repository.ecommerce;
+
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+import auca.ac.rw.restfullApiAssignment.support.CollectionVersion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe in-memory store for products, indexed by product ID.
+ * Reads never lock; writes are serialized so every index changes together.
+ * In columnar mode scan queries are answered from a ProductColumns copy instead of the product objects.
+ */
+public class ProductRepository {
+
+    // Hash index for O(1) lookups by ID
+    private final Map<Long, Product> productsById = new ConcurrentHashMap<>();
+
+    // IDs are handed out in increasing order, so ID order is insertion order
+    private final ConcurrentSkipListMap<Long, Product> productsInOrder = new ConcurrentSkipListMap<>();
+
+    // Case-folded secondary indexes: category / brand -> products in ID order
+    private final Map<String, ConcurrentSkipListMap<Long, Product>> productsByCategory = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListMap<Long, Product>> productsByBrand = new ConcurrentHashMap<>();
+
+    // Price index ordered by (price, ID); ties keep insertion order
+    private final ConcurrentSkipListMap<PriceKey, Product> productsByPrice = new ConcurrentSkipListMap<>();
+
+    // Full-text index for keyword search
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+
+    // Optional columnar copy for scans, null in row mode
+    private final ProductColumns columns;
+
+    private final AtomicLong nextId = new AtomicLong(1L);
+
+    // Bumped by every change, including stock changed in place
+    private final CollectionVersion version = new CollectionVersion("products");
+
+    public ProductRepository() {
+        this(false);
+    }
+
+    public ProductRepository(boolean columnar) {
+        this.columns = columnar ? new ProductColumns() : null;
+    }
+
+    /**
+     * Store a product that already carries its ID (e.g. seed data)
+     */
+    public synchronized void load(Product product) {
+        Long productId = product.getProductId();
+        nextId.accumulateAndGet(productId + 1, Math::max);
+        put(productId, product);
+        version.bump();
+    }
+
+    /**
+     * Assign the next free ID to the product and store it
+     */
+    public synchronized Product add(Product product) {
+        product.setProductId(nextId.getAndIncrement());
+        put(product.getProductId(), product);
+        version.bump();
+        return product;
+    }
+
+    /**
+     * Store a batch of new products under one lock: a contiguous block of IDs, indexed row by row
+     * in ID order, and one version bump for the whole batch. IDs are reserved under the same lock,
+     * so no other insert can land a higher ID first and let a cursor page past the batch.
+     */
+    public synchronized void addAll(List<Product> batch) {
+        long firstId = nextId.getAndAdd(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Product product = batch.get(i);
+            product.setProductId(firstId + i);
+            put(product.getProductId(), product);
+        }
+        version.bump();
+    }
+
+    /**
+     * Replace the product stored under the given ID, keeping its position and its live stock;
+     * reservations keep taking and returning stock on the same count (use updateStock to change it)
+     */
+    public synchronized Optional<Product> replace(Long productId, Product updatedProduct) {
+        Product previous = productsById.get(productId);
+        if (previous == null) {
+            return Optional.empty();
+        }
+        updatedProduct.setProductId(productId);
+        updatedProduct.keepStockOf(previous);
+        put(productId, updatedProduct);
+        version.bump();
+        return Optional.of(updatedProduct);
+    }
+
+    /**
+     * Remove the product with the given ID, returns false when it does not exist
+     */
+    public synchronized boolean remove(Long productId) {
+        Product removed = productsById.remove(productId);
+        if (removed == null) {
+            return false;
+        }
+        productsInOrder.remove(productId);
+        unindex(productsByCategory, removed.getCategory(), productId);
+        unindex(productsByBrand, removed.getBrand(), productId);
+        if (removed.getPrice() != null) {
+            productsByPrice.remove(new PriceKey(removed.getPrice(), productId));
+        }
+        searchIndex.remove(productId);
+        if (columns != null) {
+            columns.remove(productId);
+        }
+        version.bump();
+        return true;
+    }
+
+    /**
+     * Set the stock of the product with the given ID
+     */
+    public Optional<Product> updateStock(Long productId, int quantity) {
+        Optional<Product> product = findById(productId);
+        product.ifPresent(p -> {
+            p.setStockQuantity(quantity);
+            stockChanged(p);
+        });
+        return product;
+    }
+
+    /**
+     * Must be called after a product's stock was changed in place
+     */
+    public void stockChanged(Product product) {
+        if (columns != null) {
+            columns.refreshStock(product);
+        }
+        version.bump();
+    }
+
+    public CollectionVersion version() {
+        return version;
+    }
+
+    public Optional<Product> findById(Long productId) {
+        return Optional.ofNullable(productsById.get(productId));
+    }
+
+    /**
+     * Copy of all products in insertion order
+     */
+    public List<Product> findAll() {
+        return new ArrayList<>(productsInOrder.values());
+    }
+
+    /**
+     * Live, weakly consistent view of all products in insertion order
+     */
+    public Collection<Product> values() {
+        return productsInOrder.values();
+    }
+
+    /**
+     * Up to limit products that come after the given ID in insertion order,
+     * starting from the first product when afterId is null
+     */
+    public List<Product> findAfter(Long afterId, int limit) {
+        NavigableMap<Long, Product> tail = afterId == null ? productsInOrder : productsInOrder.tailMap(afterId, false);
+        List<Product> result = new ArrayList<>(Math.min(limit, 64));
+        for (Product product : tail.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(product);
+        }
+        return result;
+    }
+
+    /**
+     * Products of the given category (case-insensitive), in insertion order
+     */
+    public List<Product> findByCategory(String category) {
+        return lookup(productsByCategory, category);
+    }
+
+    /**
+     * Products of the given brand (case-insensitive), in insertion order
+     */
+    public List<Product> findByBrand(String brand) {
+        return lookup(productsByBrand, brand);
+    }
+
+    /**
+     * Products priced within [min, max], sorted by price, at most limit rows
+     */
+    public List<Product> findByPriceRange(double min, double max, boolean descending, int limit) {
+        if (min > max) {
+            return new ArrayList<>();
+        }
+        NavigableMap<PriceKey, Product> range = productsByPrice.subMap(
+                new PriceKey(min, Long.MIN_VALUE), true,
+                new PriceKey(max, Long.MAX_VALUE), true);
+        if (descending) {
+            range = range.descendingMap();
+        }
+        List<Product> result = new ArrayList<>(Math.min(limit, 64));
+        for (Product product : range.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(product);
+        }
+        return result;
+    }
+
+    /**
+     * Products whose name or description contains the keyword (case-insensitive),
+     * name matches ranked above description matches
+     */
+    public List<Product> search(String keyword) {
+        List<Product> result = new ArrayList<>();
+        for (Long productId : searchIndex.search(keyword)) {
+            Product product = productsById.get(productId);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Products with stock above zero, optionally limited to a category and/or brand, in insertion order
+     */
+    public List<Product> findInStock(String category, String brand) {
+        if (columns != null) {
+            return columns.inStock(category, brand);
+        }
+
+        List<Product> result = new ArrayList<>();
+        Collection<Product> candidates = productsInOrder.values();
+        if (category != null) {
+            ConcurrentSkipListMap<Long, Product> bucket = productsByCategory.get(fold(category));
+            candidates = bucket == null ? List.of() : bucket.values();
+        }
+        for (Product product : candidates) {
+            if (product.getStockQuantity() > 0
+                    && (brand == null || (product.getBrand() != null && product.getBrand().equalsIgnoreCase(brand)))) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return productsById.size();
+    }
+
+    // Callers bump the version once the change is complete
+    private void put(Long productId, Product product) {
+        Product previous = productsById.put(productId, product);
+        productsInOrder.put(productId, product);
+        reindex(productsByCategory, previous == null ? null : previous.getCategory(), product.getCategory(), product);
+        reindex(productsByBrand, previous == null ? null : previous.getBrand(), product.getBrand(), product);
+        if (product.getPrice() != null) {
+            productsByPrice.put(new PriceKey(product.getPrice(), productId), product);
+        }
+        if (previous != null && previous.getPrice() != null
+                && !previous.getPrice().equals(product.getPrice())) {
+            productsByPrice.remove(new PriceKey(previous.getPrice(), productId));
+        }
+        searchIndex.put(product);
+        if (columns != null) {
+            columns.put(product);
+        }
+    }
+
+    private static String fold(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    private static void index(Map<String, ConcurrentSkipListMap<Long, Product>> index, String key, Product product) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfAbsent(fold(key), k -> new ConcurrentSkipListMap<>())
+                .put(product.getProductId(), product);
+    }
+
+    // Index the new key before dropping the old one so readers never see a gap
+    private static void reindex(Map<String, ConcurrentSkipListMap<Long, Product>> index,
+                                String oldKey, String newKey, Product product) {
+        index(index, newKey, product);
+        if (oldKey != null && (newKey == null || !fold(oldKey).equals(fold(newKey)))) {
+            unindex(index, oldKey, product.getProductId());
+        }
+    }
+
+    private static void unindex(Map<String, ConcurrentSkipListMap<Long, Product>> index, String key, Long productId) {
+        if (key == null) {
+            return;
+        }
+        String folded = fold(key);
+        ConcurrentSkipListMap<Long, Product> bucket = index.get(folded);
+        if (bucket != null) {
+            bucket.remove(productId);
+            if (bucket.isEmpty()) {
+                index.remove(folded);
+            }
+        }
+    }
+
+    private static List<Product> lookup(Map<String, ConcurrentSkipListMap<Long, Product>> index, String key) {
+        ConcurrentSkipListMap<Long, Product> bucket = index.get(fold(key));
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.values());
+    }
+
+    private record PriceKey(double price, long productId) implements Comparable<PriceKey> {
+        @Override
+        public int compareTo(PriceKey other) {
+            int byPrice = Double.compare(price, other.price);
+            return byPrice != 0 ? byPrice : Long.compare(productId, other.productId);
+        }
+    }
+}
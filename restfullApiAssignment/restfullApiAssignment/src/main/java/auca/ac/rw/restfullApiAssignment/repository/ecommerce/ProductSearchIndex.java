@@ -0,0 +1,140 @@
+package auca.ac.rw.restfullApiAssignment.repository.ecommerce;
+
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted n-gram index over product names and descriptions, with every substring of one
+ * to three characters as a gram. Text is lowercased once at index time. A keyword of up to
+ * three characters is itself a gram, so its posting list is exactly the matching products;
+ * a longer keyword is matched by walking the shortest posting list of its trigrams and
+ * checking the candidates, which keeps the old substring semantics. Updates must be
+ * serialized by the caller.
+ */
+class ProductSearchIndex {
+
+    // Longest indexed gram; all shorter ones are indexed too
+    private static final int GRAM_LENGTH = 3;
+
+    // Lowercased text per product, kept for candidate verification and removal
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    // Gram -> IDs of products whose name or description contains it
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Index the product, replacing any previous text stored for its ID
+     */
+    void put(Product product) {
+        Long productId = product.getProductId();
+        Document document = new Document(normalize(product.getName()), normalize(product.getDescription()));
+        Document previous = documents.put(productId, document);
+
+        Set<String> grams = document.grams();
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(productId);
+        }
+        if (previous != null) {
+            Set<String> stale = previous.grams();
+            stale.removeAll(grams);
+            unpost(stale, productId);
+        }
+    }
+
+    void remove(Long productId) {
+        Document previous = documents.remove(productId);
+        if (previous != null) {
+            unpost(previous.grams(), productId);
+        }
+    }
+
+    /**
+     * IDs of products matching the keyword: name hits first, then description-only hits,
+     * each group in ID order
+     */
+    List<Long> search(String keyword) {
+        String query = normalize(keyword);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> nameHits = new ArrayList<>();
+        List<Long> descriptionHits = new ArrayList<>();
+        for (Long productId : candidates(query)) {
+            Document document = documents.get(productId);
+            if (document == null) {
+                continue;
+            }
+            if (document.name().contains(query)) {
+                nameHits.add(productId);
+            } else if (document.description().contains(query)) {
+                descriptionHits.add(productId);
+            }
+        }
+        Collections.sort(nameHits);
+        Collections.sort(descriptionHits);
+        nameHits.addAll(descriptionHits);
+        return nameHits;
+    }
+
+    // Candidates still need checking to tell name hits from description hits
+    private Collection<Long> candidates(String query) {
+        if (query.length() <= GRAM_LENGTH) {
+            Set<Long> posting = postings.get(query);
+            return posting == null ? Collections.emptySet() : posting;
+        }
+        Set<Long> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            Set<Long> posting = postings.get(query.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest;
+    }
+
+    private void unpost(Set<String> grams, Long productId) {
+        for (String gram : grams) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private record Document(String name, String description) {
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            addGrams(name, grams);
+            addGrams(description, grams);
+            return grams;
+        }
+
+        private static void addGrams(String text, Set<String> grams) {
+            for (int i = 0; i < text.length(); i++) {
+                for (int end = i + 1; end <= Math.min(i + GRAM_LENGTH, text.length()); end++) {
+                    grams.add(text.substring(i, end));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package auca.ac.rw.restfullApiAssignment.repository.ecommerce;
+
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Reservation;
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.ReservationItem;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free stock reservations on top of a ProductRepository.
+ * Stock is taken with compare-and-set on each product, so buyers of different
+ * SKUs never contend and buyers of the same SKU never oversell.
+ * A reservation holds its stock for a limited time. Expired reservations are
+ * released by the next reserve call, and cannot be committed or released any more.
+ */
+public class ReservationRepository {
+
+    // How long an abandoned cart keeps its stock
+    private static final Duration DEFAULT_HOLD = Duration.ofMinutes(15);
+
+    private final ProductRepository products;
+
+    private final long holdNanos;
+
+    private final LongSupplier clock;
+
+    // Told the ID of every product whose stock an expired reservation gave back
+    private final Consumer<Long> stockReturned;
+
+    // Open reservations by ID; removing an entry is what commits, releases or expires it
+    private final Map<String, Hold> reservations = new ConcurrentHashMap<>();
+
+    // Holds in the order they were taken, which with one hold time is also the order they expire in
+    private final Queue<Hold> expiring = new ConcurrentLinkedQueue<>();
+
+    public ReservationRepository(ProductRepository products, Consumer<Long> stockReturned) {
+        this(products, DEFAULT_HOLD, System::nanoTime, stockReturned);
+    }
+
+    ReservationRepository(ProductRepository products, Duration hold, LongSupplier clock, Consumer<Long> stockReturned) {
+        this.products = products;
+        this.holdNanos = hold.toNanos();
+        this.clock = clock;
+        this.stockReturned = stockReturned;
+    }
+
+    /**
+     * Reserve every item or none of them. Returns empty when a product is missing
+     * or short of stock, after putting back whatever was already taken.
+     * Expired reservations give their stock back first.
+     *
+     * @throws IllegalArgumentException if a quantity is not positive or the quantities
+     *                                  of one product add up to more than Integer.MAX_VALUE
+     */
+    public Optional<Reservation> reserve(List<ReservationItem> items) {
+        // Merge repeated SKUs so each product is touched once
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (ReservationItem item : items) {
+            if (item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive: " + item.getQuantity());
+            }
+            try {
+                quantities.merge(item.getProductId(), item.getQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Total quantity of product " + item.getProductId() + " is too large");
+            }
+        }
+
+        expire();
+        List<ReservationItem> taken = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Optional<Product> product = products.findById(entry.getKey());
+            if (product.isEmpty() || !product.get().tryTakeStock(entry.getValue())) {
+                rollback(taken);
+                return Optional.empty();
+            }
+            products.stockChanged(product.get());
+            taken.add(new ReservationItem(entry.getKey(), entry.getValue()));
+        }
+
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), taken, Reservation.RESERVED);
+        Hold hold = new Hold(reservation, clock.getAsLong() + holdNanos);
+        reservations.put(reservation.getReservationId(), hold);
+        expiring.add(hold);
+        return Optional.of(reservation);
+    }
+
+    /**
+     * Make the reservation final; the stock it holds is not returned.
+     * Returns empty when the reservation is unknown or has expired.
+     */
+    public Optional<Reservation> commit(String reservationId) {
+        Hold hold = reservations.remove(reservationId);
+        if (hold == null || expired(hold)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Reservation(reservationId, hold.reservation().getItems(), Reservation.COMMITTED));
+    }
+
+    /**
+     * Cancel the reservation and put its stock back.
+     * Returns empty when the reservation is unknown or has expired.
+     */
+    public Optional<Reservation> release(String reservationId) {
+        Hold hold = reservations.remove(reservationId);
+        if (hold == null || expired(hold)) {
+            return Optional.empty();
+        }
+        rollback(hold.reservation().getItems());
+        return Optional.of(new Reservation(reservationId, hold.reservation().getItems(), Reservation.RELEASED));
+    }
+
+    /**
+     * Give back the stock of every reservation whose hold time is over, returns how many expired
+     */
+    public int expire() {
+        long now = clock.getAsLong();
+        int expired = 0;
+        Hold oldest;
+        while ((oldest = expiring.peek()) != null && oldest.expiresAt() - now <= 0) {
+            // Committed and released holds are already gone from the map and are just dropped here
+            if (expiring.remove(oldest) && reservations.remove(oldest.reservation().getReservationId(), oldest)) {
+                giveBack(oldest);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    // Called with a hold already removed from the map; an expired one still gives its stock back
+    private boolean expired(Hold hold) {
+        if (hold.expiresAt() - clock.getAsLong() > 0) {
+            return false;
+        }
+        giveBack(hold);
+        return true;
+    }
+
+    private void giveBack(Hold hold) {
+        rollback(hold.reservation().getItems());
+        hold.reservation().getItems().forEach(item -> stockReturned.accept(item.getProductId()));
+    }
+
+    private void rollback(List<ReservationItem> items) {
+        for (ReservationItem item : items) {
+            products.findById(item.getProductId())
+                    .ifPresent(product -> {
+                        product.returnStock(item.getQuantity());
+                        products.stockChanged(product);
+                    });
+        }
+    }
+
+    private record Hold(Reservation reservation, long expiresAt) {
+    }
+}
@@ -0,0 +1,193 @@
+package auca.ac.rw.restfullApiAssignment.repository.library;
+
+import auca.ac.rw.restfullApiAssignment.modal.library.Book;
+import auca.ac.rw.restfullApiAssignment.modal.library.YearCount;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe in-memory store for books, indexed by ID, by normalized ISBN,
+ * which must be unique, by title words for autocomplete and by publication year.
+ * Reads never lock; writes are serialized so every index changes together.
+ */
+public class BookRepository {
+
+    // Publication years outside this span (0 when unknown) are not indexed by year
+    public static final int MIN_YEAR = 1;
+    public static final int MAX_YEAR = 9999;
+
+    // Hash index for O(1) lookups by ID
+    private final Map<Long, Book> booksById = new ConcurrentHashMap<>();
+
+    // IDs are handed out in increasing order, so ID order is insertion order
+    private final ConcurrentSkipListMap<Long, Book> booksInOrder = new ConcurrentSkipListMap<>();
+
+    // Normalized ISBN -> book ID
+    private final IsbnIndex isbnIndex = new IsbnIndex();
+
+    // Sorted title words for prefix completion
+    private final TitleIndex titleIndex = new TitleIndex();
+
+    // Year-offset buckets of book IDs
+    private final YearIndex yearIndex = new YearIndex();
+
+    private final AtomicLong nextId = new AtomicLong(1L);
+
+    /**
+     * Store a book that already carries its ID (e.g. seed data)
+     */
+    public synchronized void load(Book book) {
+        checkIsbn(book);
+        nextId.accumulateAndGet(book.getId() + 1, Math::max);
+        put(book);
+    }
+
+    /**
+     * Assign the next free ID to the book and store it
+     *
+     * @throws IllegalArgumentException if the ISBN is given but is not a valid ISBN-10 or ISBN-13
+     * @throws DuplicateIsbnException if another book has the same ISBN
+     */
+    public synchronized Book add(Book book) {
+        checkIsbn(book);
+        book.setId(nextId.getAndIncrement());
+        put(book);
+        return book;
+    }
+
+    /**
+     * Remove the book with the given ID, returns false when it does not exist
+     */
+    public synchronized boolean remove(Long id) {
+        Book removed = booksById.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        booksInOrder.remove(id);
+        long isbnKey = Isbn.toKey(removed.getIsbn());
+        if (isbnKey != Isbn.INVALID) {
+            isbnIndex.remove(isbnKey);
+        }
+        titleIndex.remove(id);
+        if (isIndexedYear(removed.getPublicationYear())) {
+            yearIndex.remove(removed.getPublicationYear(), id);
+        }
+        return true;
+    }
+
+    public Optional<Book> findById(Long id) {
+        return Optional.ofNullable(booksById.get(id));
+    }
+
+    /**
+     * Book with the ISBN (ISBN-10 or ISBN-13, hyphens optional); empty when unknown or not an ISBN
+     */
+    public Optional<Book> findByIsbn(String isbn) {
+        return findByIsbnKey(Isbn.toKey(isbn));
+    }
+
+    /**
+     * Book with the normalized ISBN key from {@link Isbn#toKey}
+     */
+    public Optional<Book> findByIsbnKey(long isbnKey) {
+        if (isbnKey == Isbn.INVALID) {
+            return Optional.empty();
+        }
+        long id = isbnIndex.get(isbnKey);
+        return id < 0 ? Optional.empty() : findById(id);
+    }
+
+    /**
+     * Up to limit books with a title word starting with the query's last word (case- and
+     * accent-insensitive) and containing every earlier word, in alphabetical order of the completed word
+     */
+    public List<Book> autocomplete(String query, int limit) {
+        List<Book> result = new ArrayList<>(Math.min(limit, 16));
+        for (Long id : titleIndex.complete(query, limit)) {
+            Book book = booksById.get(id);
+            if (book != null) {
+                result.add(book);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Books published from one year to another (inclusive), ordered by year and then insertion
+     */
+    public List<Book> findByYearRange(int from, int to) {
+        List<Book> result = new ArrayList<>();
+        yearIndex.forEachInRange(Math.max(from, MIN_YEAR), Math.min(to, MAX_YEAR), id -> {
+            Book book = booksById.get(id);
+            if (book != null) {
+                result.add(book);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Number of books per publication year, for every year that has books, in year order
+     */
+    public List<YearCount> yearHistogram() {
+        List<YearCount> result = new ArrayList<>();
+        yearIndex.forEachYear((year, count) -> result.add(new YearCount(year, count)));
+        return result;
+    }
+
+    /**
+     * Copy of all books in insertion order
+     */
+    public List<Book> findAll() {
+        return new ArrayList<>(booksInOrder.values());
+    }
+
+    /**
+     * Live, weakly consistent view of all books in insertion order
+     */
+    public Collection<Book> values() {
+        return booksInOrder.values();
+    }
+
+    public int size() {
+        return booksById.size();
+    }
+
+    private void put(Book book) {
+        booksById.put(book.getId(), book);
+        booksInOrder.put(book.getId(), book);
+        long isbnKey = Isbn.toKey(book.getIsbn());
+        if (isbnKey != Isbn.INVALID) {
+            isbnIndex.put(isbnKey, book.getId());
+        }
+        titleIndex.put(book);
+        if (isIndexedYear(book.getPublicationYear())) {
+            yearIndex.add(book.getPublicationYear(), book.getId());
+        }
+    }
+
+    private static boolean isIndexedYear(int year) {
+        return year >= MIN_YEAR && year <= MAX_YEAR;
+    }
+
+    // Must run under the write lock, right before the book is stored
+    private void checkIsbn(Book book) {
+        if (book.getIsbn() == null) {
+            return;
+        }
+        long isbnKey = Isbn.toKey(book.getIsbn());
+        if (isbnKey == Isbn.INVALID) {
+            throw new IllegalArgumentException("Not a valid ISBN: " + book.getIsbn());
+        }
+        if (isbnIndex.get(isbnKey) >= 0) {
+            throw new DuplicateIsbnException(book.getIsbn());
+        }
+    }
+}
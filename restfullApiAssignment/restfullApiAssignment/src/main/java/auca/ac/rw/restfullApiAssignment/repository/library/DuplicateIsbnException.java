@@ -0,0 +1,13 @@
+package auca.ac.rw.restfullApiAssignment.repository.library;
+
+/**
+ * Thrown when a book's ISBN is already in the catalog
+ */
+public class DuplicateIsbnException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DuplicateIsbnException(String isbn) {
+        super("Book already exists with ISBN: " + isbn);
+    }
+}
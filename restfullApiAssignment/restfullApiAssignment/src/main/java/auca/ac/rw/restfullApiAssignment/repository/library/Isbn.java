@@ -0,0 +1,63 @@
+package auca.ac.rw.restfullApiAssignment.repository.library;
+
+/**
+ * ISBN normalization to a primitive key: the 13 digits of the ISBN-13 as a long.
+ * ISBN-10s are converted to their 978-prefixed ISBN-13; hyphens and spaces are ignored.
+ * Check digits are not verified, since catalog data often carries mistyped ones.
+ */
+public final class Isbn {
+
+    // Returned for anything that is not a 10- or 13-character ISBN; no ISBN-13 normalizes to 0
+    public static final long INVALID = 0L;
+
+    private Isbn() {
+    }
+
+    /**
+     * Normalized key of the ISBN, or INVALID
+     */
+    public static long toKey(String isbn) {
+        if (isbn == null) {
+            return INVALID;
+        }
+        long key = 0;
+        int digits = 0;
+        boolean tenCheckX = false;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9' && !tenCheckX) {
+                key = key * 10 + (c - '0');
+                digits++;
+            } else if ((c == 'X' || c == 'x') && digits == 9 && !tenCheckX) {
+                tenCheckX = true;
+                digits++;
+            } else if (c != '-' && c != ' ') {
+                return INVALID;
+            }
+            if (digits > 13) {
+                return INVALID;
+            }
+        }
+
+        if (digits == 13 && !tenCheckX) {
+            return key == 0 ? INVALID : key;
+        }
+        if (digits == 10) {
+            // Drop the ISBN-10 check digit, prefix 978 and compute the ISBN-13 one
+            long body = 978_000_000_000L + (tenCheckX ? key : key / 10);
+            return body * 10 + checkDigit13(body);
+        }
+        return INVALID;
+    }
+
+    // Check digit for the first 12 digits of an ISBN-13: weights 1, 3, 1, 3, ... from the left
+    private static int checkDigit13(long first12) {
+        int sum = 0;
+        for (int position = 12; position >= 1; position--) {
+            int digit = (int) (first12 % 10);
+            sum += position % 2 == 0 ? digit * 3 : digit;
+            first12 /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
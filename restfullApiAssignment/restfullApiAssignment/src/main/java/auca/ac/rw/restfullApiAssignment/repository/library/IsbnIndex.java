@@ -0,0 +1,130 @@
+package auca.ac.rw.restfullApiAssignment.repository.library;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash index from normalized ISBN keys to book IDs, held in two
+ * parallel long arrays so lookups never box or chase pointers. Linear probing with
+ * backward-shift deletion keeps probe runs short without tombstones.
+ * Reads are optimistic (no lock unless a write overlapped); writes take the write lock.
+ */
+class IsbnIndex {
+
+    private static final long EMPTY = 0L;
+    private static final long NOT_FOUND = -1L;
+
+    private final StampedLock lock = new StampedLock();
+
+    // keys[i] == EMPTY marks a free slot; table length is a power of two, at most half full
+    private long[] keys = new long[64];
+    private long[] values = new long[64];
+    private int size;
+
+    /**
+     * Book ID stored for the key, or -1
+     */
+    long get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        long bookId = probe(keys, values, key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                bookId = probe(keys, values, key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return bookId;
+    }
+
+    void put(long key, long bookId) {
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            values[slot] = bookId;
+            keys[slot] = key;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // Shift later entries of the probe run back into the hole
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = slot(keys[next], mask);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = EMPTY;
+            size--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // May see a table mid-write; the caller validates and retries under the read lock
+    private static long probe(long[] keys, long[] values, long key) {
+        int mask = Math.min(keys.length, values.length) - 1;
+        int slot = slot(key, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            long found = keys[slot];
+            if (found == key) {
+                return values[slot];
+            }
+            if (found == EMPTY) {
+                return NOT_FOUND;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        long[] newKeys = new long[capacity];
+        long[] newValues = new long[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i], mask);
+                while (newKeys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                newKeys[slot] = oldKeys[i];
+                newValues[slot] = oldValues[i];
+            }
+        }
+        values = newValues;
+        keys = newKeys;
+    }
+
+    // Fibonacci hashing spreads the mostly-sequential ISBN keys over the table
+    static int slot(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+    }
+}
@@ -0,0 +1,105 @@
+package auca.ac.rw.restfullApiAssignment.repository.library;
+
+import auca.ac.rw.restfullApiAssignment.modal.library.Book;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Sorted word index over book titles for type-ahead. Titles are split into
+ * words, lowercased and stripped of accents once at index time; a prefix is
+ * a range of the sorted word map, so completion cost depends on the number
+ * of results, not on the size of the catalog. Updates must be serialized by the caller.
+ */
+class TitleIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    // Normalized title word -> IDs of books whose title contains it
+    private final ConcurrentSkipListMap<String, NavigableSet<Long>> booksByWord = new ConcurrentSkipListMap<>();
+
+    // Normalized words per book, kept for removal and for multi-word queries
+    private final Map<Long, Set<String>> wordsByBook = new ConcurrentHashMap<>();
+
+    void put(Book book) {
+        Set<String> words = new LinkedHashSet<>(Arrays.asList(words(book.getTitle())));
+        wordsByBook.put(book.getId(), words);
+        for (String word : words) {
+            booksByWord.computeIfAbsent(word, w -> new ConcurrentSkipListSet<>()).add(book.getId());
+        }
+    }
+
+    void remove(Long bookId) {
+        Set<String> words = wordsByBook.remove(bookId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            NavigableSet<Long> ids = booksByWord.get(word);
+            if (ids != null) {
+                ids.remove(bookId);
+                if (ids.isEmpty()) {
+                    booksByWord.remove(word, ids);
+                }
+            }
+        }
+    }
+
+    /**
+     * Up to limit IDs of books with a title word starting with the query's last word and
+     * containing each earlier word, in alphabetical order of the completed word and then ID order.
+     * An exact match of the last word comes before its longer completions, but completions are not
+     * otherwise sorted by length: that would mean reading every completion before the limit applies.
+     */
+    List<Long> complete(String query, int limit) {
+        String[] words = words(query);
+        List<Long> result = new ArrayList<>(Math.min(limit, 16));
+        if (words.length == 0) {
+            return result;
+        }
+        String prefix = words[words.length - 1];
+        List<String> required = Arrays.asList(words).subList(0, words.length - 1);
+
+        Set<Long> seen = new LinkedHashSet<>();
+        for (NavigableSet<Long> ids : booksByWord.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            for (Long bookId : ids) {
+                if (seen.add(bookId) && matchesAll(bookId, required)) {
+                    result.add(bookId);
+                    if (result.size() >= limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean matchesAll(Long bookId, List<String> required) {
+        if (required.isEmpty()) {
+            return true;
+        }
+        Set<String> words = wordsByBook.get(bookId);
+        return words != null && words.containsAll(required);
+    }
+
+    private static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String folded = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(NON_WORD.split(folded)).filter(w -> !w.isEmpty()).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,131 @@
+package auca.ac.rw.restfullApiAssignment.repository.library;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Publication-year index: one bucket per year in an array offset by the earliest
+ * year seen, each bucket a sorted long[] of book IDs plus the number of them in use.
+ * Years are a small dense domain, so a range is a walk over consecutive buckets and
+ * a histogram is one pass over bucket sizes. Reads never lock; updates must be
+ * serialized by the caller.
+ *
+ * A bucket's array grows geometrically, and a new ID is appended in place past the
+ * published size, where no reader looks, before a bucket with the larger size is
+ * published. Appending in ID order is therefore amortized O(1). Removes and
+ * out-of-order inserts publish a fresh copy.
+ */
+class YearIndex {
+
+    // Buckets for years [firstYear, firstYear + buckets.length()), replaced as a whole when the span grows
+    private volatile Buckets buckets = new Buckets(0, new AtomicReferenceArray<>(0));
+
+    void add(int year, long bookId) {
+        Buckets current = grownToInclude(year);
+        int slot = year - current.firstYear();
+        Bucket bucket = current.ids().get(slot);
+        current.ids().set(slot, bucket == null ? new Bucket(new long[] {bookId}, 1) : bucket.with(bookId));
+    }
+
+    void remove(int year, long bookId) {
+        Buckets current = buckets;
+        int slot = year - current.firstYear();
+        if (slot < 0 || slot >= current.ids().length()) {
+            return;
+        }
+        Bucket bucket = current.ids().get(slot);
+        if (bucket != null) {
+            current.ids().set(slot, bucket.without(bookId));
+        }
+    }
+
+    /**
+     * Calls the visitor with every book ID published in [from, to], by year and then ID
+     */
+    void forEachInRange(int from, int to, LongConsumer visitor) {
+        Buckets current = buckets;
+        int first = Math.max(from, current.firstYear());
+        int last = Math.min(to, current.firstYear() + current.ids().length() - 1);
+        for (int year = first; year <= last; year++) {
+            Bucket bucket = current.ids().get(year - current.firstYear());
+            if (bucket != null) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    visitor.accept(bucket.ids()[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls the visitor with (year, number of books) for every year that has books, in year order
+     */
+    void forEachYear(YearCountVisitor visitor) {
+        Buckets current = buckets;
+        for (int slot = 0; slot < current.ids().length(); slot++) {
+            Bucket bucket = current.ids().get(slot);
+            if (bucket != null) {
+                visitor.accept(current.firstYear() + slot, bucket.size());
+            }
+        }
+    }
+
+    private Buckets grownToInclude(int year) {
+        Buckets current = buckets;
+        int length = current.ids().length();
+        if (length > 0 && year >= current.firstYear() && year < current.firstYear() + length) {
+            return current;
+        }
+        int firstYear = length == 0 ? year : Math.min(year, current.firstYear());
+        int lastYear = length == 0 ? year : Math.max(year, current.firstYear() + length - 1);
+        AtomicReferenceArray<Bucket> grown = new AtomicReferenceArray<>(lastYear - firstYear + 1);
+        for (int slot = 0; slot < length; slot++) {
+            grown.set(current.firstYear() + slot - firstYear, current.ids().get(slot));
+        }
+        Buckets replaced = new Buckets(firstYear, grown);
+        buckets = replaced;
+        return replaced;
+    }
+
+    interface YearCountVisitor {
+        void accept(int year, int count);
+    }
+
+    private record Buckets(int firstYear, AtomicReferenceArray<Bucket> ids) {
+    }
+
+    // Book IDs of one year: ids[0, size) sorted; the slots past size belong to the writer
+    private record Bucket(long[] ids, int size) {
+
+        Bucket with(long bookId) {
+            // IDs grow over time, so the new one almost always goes last
+            if (ids[size - 1] < bookId) {
+                long[] target = size < ids.length ? ids : Arrays.copyOf(ids, size * 2);
+                target[size] = bookId;
+                return new Bucket(target, size + 1);
+            }
+            long[] updated = new long[size * 2];
+            int at = Arrays.binarySearch(ids, 0, size, bookId);
+            at = at < 0 ? -at - 1 : at;
+            System.arraycopy(ids, 0, updated, 0, at);
+            updated[at] = bookId;
+            System.arraycopy(ids, at, updated, at + 1, size - at);
+            return new Bucket(updated, size + 1);
+        }
+
+        // This bucket without the ID, itself when the ID is absent, null once empty
+        Bucket without(long bookId) {
+            int at = Arrays.binarySearch(ids, 0, size, bookId);
+            if (at < 0) {
+                return this;
+            }
+            if (size == 1) {
+                return null;
+            }
+            long[] updated = new long[size - 1];
+            System.arraycopy(ids, 0, updated, 0, at);
+            System.arraycopy(ids, at + 1, updated, at, updated.length - at);
+            return new Bucket(updated, updated.length);
+        }
+    }
+}
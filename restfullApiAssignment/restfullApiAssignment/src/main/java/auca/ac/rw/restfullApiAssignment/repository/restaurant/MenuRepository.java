@@ -0,0 +1,174 @@
+package auca.ac.rw.restfullApiAssignment.repository.restaurant;
+
+import auca.ac.rw.restfullApiAssignment.modal.restaurant.MenuItem;
+import auca.ac.rw.restfullApiAssignment.support.AtomicBitSet;
+import auca.ac.rw.restfullApiAssignment.support.CollectionVersion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe in-memory store for menu items, indexed by ID and partitioned by
+ * case-folded category. Availability is one bit per item ID in an atomic bitset,
+ * so toggles and explicit sets are lock-free and never cancel each other out;
+ * adding and removing items is serialized. Every change bumps the menu version.
+ */
+public class MenuRepository {
+
+    // Hash index for O(1) lookups by ID
+    private final Map<Long, MenuItem> itemsById = new ConcurrentHashMap<>();
+
+    // IDs are handed out in increasing order, so ID order is insertion order
+    private final ConcurrentSkipListMap<Long, MenuItem> itemsInOrder = new ConcurrentSkipListMap<>();
+
+    // Case-folded category -> its items in ID order
+    private final Map<String, ConcurrentSkipListMap<Long, MenuItem>> itemsByCategory = new ConcurrentHashMap<>();
+
+    // Bit per item ID, set while the item is available
+    private final AtomicBitSet available = new AtomicBitSet();
+
+    private final AtomicLong nextId = new AtomicLong(1L);
+
+    // Bumped by every change to the menu, including availability
+    private final CollectionVersion version = new CollectionVersion("menu");
+
+    /**
+     * Store an item that already carries its ID (e.g. seed data)
+     */
+    public synchronized void load(MenuItem item) {
+        nextId.accumulateAndGet(item.getId() + 1, Math::max);
+        put(item);
+    }
+
+    /**
+     * Assign the next free ID to the item and store it
+     */
+    public synchronized MenuItem add(MenuItem item) {
+        item.setId(nextId.getAndIncrement());
+        put(item);
+        return item;
+    }
+
+    /**
+     * Flip the availability of the item with the given ID
+     */
+    public Optional<MenuItem> toggleAvailability(Long id) {
+        MenuItem item = itemsById.get(id);
+        if (item == null) {
+            return Optional.empty();
+        }
+        available.flip(id);
+        availabilityChanged(item);
+        return Optional.of(item);
+    }
+
+    /**
+     * Make the item with the given ID available or unavailable; a no-op when it already is
+     */
+    public Optional<MenuItem> setAvailability(Long id, boolean isAvailable) {
+        MenuItem item = itemsById.get(id);
+        if (item == null) {
+            return Optional.empty();
+        }
+        if (available.set(id, isAvailable) != isAvailable) {
+            availabilityChanged(item);
+        }
+        return Optional.of(item);
+    }
+
+    /**
+     * Remove the item with the given ID, returns false when it does not exist
+     */
+    public synchronized boolean remove(Long id) {
+        MenuItem removed = itemsById.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        itemsInOrder.remove(id);
+        if (removed.getCategory() != null) {
+            String folded = fold(removed.getCategory());
+            ConcurrentSkipListMap<Long, MenuItem> partition = itemsByCategory.get(folded);
+            if (partition != null) {
+                partition.remove(id);
+                if (partition.isEmpty()) {
+                    itemsByCategory.remove(folded);
+                }
+            }
+        }
+        available.set(id, false);
+        version.bump();
+        return true;
+    }
+
+    public CollectionVersion version() {
+        return version;
+    }
+
+    public Optional<MenuItem> findById(Long id) {
+        return Optional.ofNullable(itemsById.get(id));
+    }
+
+    /**
+     * Copy of all items in insertion order
+     */
+    public List<MenuItem> findAll() {
+        return new ArrayList<>(itemsInOrder.values());
+    }
+
+    /**
+     * Live, weakly consistent view of all items in insertion order
+     */
+    public Collection<MenuItem> values() {
+        return itemsInOrder.values();
+    }
+
+    /**
+     * Items of the given category (case-insensitive), optionally only those with the given
+     * availability, in insertion order; reads only that category's partition
+     */
+    public List<MenuItem> findByCategory(String category, Boolean isAvailable) {
+        ConcurrentSkipListMap<Long, MenuItem> partition = itemsByCategory.get(fold(category));
+        List<MenuItem> result = new ArrayList<>();
+        if (partition == null) {
+            return result;
+        }
+        for (MenuItem item : partition.values()) {
+            if (isAvailable == null || available.get(item.getId()) == isAvailable) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    private void put(MenuItem item) {
+        available.set(item.getId(), item.isAvailable());
+        itemsById.put(item.getId(), item);
+        itemsInOrder.put(item.getId(), item);
+        if (item.getCategory() != null) {
+            itemsByCategory.computeIfAbsent(fold(item.getCategory()), c -> new ConcurrentSkipListMap<>())
+                    .put(item.getId(), item);
+        }
+        version.bump();
+    }
+
+    // Copy the bit into the item until they agree, so the last racing writer always leaves the current value
+    private void availabilityChanged(MenuItem item) {
+        boolean current;
+        do {
+            current = available.get(item.getId());
+            item.setAvailable(current);
+        } while (available.get(item.getId()) != current);
+        version.bump();
+    }
+
+    private static String fold(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+}
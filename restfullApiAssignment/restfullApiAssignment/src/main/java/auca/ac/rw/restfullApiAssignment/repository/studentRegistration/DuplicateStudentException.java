@@ -0,0 +1,13 @@
+package auca.ac.rw.restfullApiAssignment.repository.studentRegistration;
+
+/**
+ * Thrown when an email is already registered to another student
+ */
+public class DuplicateStudentException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DuplicateStudentException(String email) {
+        super("Student already registered with email: " + email);
+    }
+}
@@ -0,0 +1,110 @@
+package auca.ac.rw.restfullApiAssignment.repository.studentRegistration;
+
+import auca.ac.rw.restfullApiAssignment.modal.studentRegistration.MajorStatistics;
+import auca.ac.rw.restfullApiAssignment.modal.studentRegistration.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Running per-major statistics, adjusted by each write instead of recomputed:
+ * count, GPA sum and histogram change in O(1), min / max come from a sorted
+ * multiset of GPAs so removals never force a rescan.
+ */
+class MajorAggregates {
+
+    // Case-folded major -> its running totals, in major order
+    private final Map<String, Aggregate> byMajor = new ConcurrentSkipListMap<>();
+
+    /**
+     * Move the student's contribution from its previous version (null when new) to the current one
+     */
+    void put(Student previous, Student current) {
+        if (previous != null) {
+            remove(previous);
+        }
+        if (current.getMajor() != null) {
+            byMajor.computeIfAbsent(fold(current.getMajor()), k -> new Aggregate(current.getMajor()))
+                    .add(current.getGpa());
+        }
+    }
+
+    void remove(Student student) {
+        if (student.getMajor() == null) {
+            return;
+        }
+        String folded = fold(student.getMajor());
+        Aggregate aggregate = byMajor.get(folded);
+        if (aggregate != null && aggregate.remove(student.getGpa()) == 0) {
+            byMajor.remove(folded);
+        }
+    }
+
+    /**
+     * Statistics of every major with at least one student, ordered by major
+     */
+    List<MajorStatistics> statistics() {
+        List<MajorStatistics> result = new ArrayList<>(byMajor.size());
+        for (Aggregate aggregate : byMajor.values()) {
+            result.add(aggregate.statistics());
+        }
+        return result;
+    }
+
+    private static String fold(String major) {
+        return major.toLowerCase(Locale.ROOT);
+    }
+
+    private static int bucket(double gpa) {
+        int bucket = (int) (gpa / MajorStatistics.BUCKET_WIDTH);
+        return Math.max(0, Math.min(MajorStatistics.BUCKETS - 1, bucket));
+    }
+
+    private static final class Aggregate {
+        // Spelling of the major as first registered
+        private final String major;
+        private int count;
+        private int graded;
+        private double gpaSum;
+        private final int[] histogram = new int[MajorStatistics.BUCKETS];
+        // GPA -> number of students with it
+        private final TreeMap<Double, Integer> gpas = new TreeMap<>();
+
+        Aggregate(String major) {
+            this.major = major;
+        }
+
+        synchronized void add(Double gpa) {
+            count++;
+            if (gpa != null) {
+                graded++;
+                gpaSum += gpa;
+                histogram[bucket(gpa)]++;
+                gpas.merge(gpa, 1, Integer::sum);
+            }
+        }
+
+        // Returns the number of students left
+        synchronized int remove(Double gpa) {
+            count--;
+            if (gpa != null) {
+                graded--;
+                gpaSum -= gpa;
+                histogram[bucket(gpa)]--;
+                gpas.computeIfPresent(gpa, (g, n) -> n == 1 ? null : n - 1);
+            }
+            return count;
+        }
+
+        synchronized MajorStatistics statistics() {
+            if (graded == 0) {
+                return new MajorStatistics(major, count, null, null, null, histogram.clone());
+            }
+            return new MajorStatistics(major, count, gpaSum / graded, gpas.firstKey(), gpas.lastKey(), histogram.clone());
+        }
+    }
+}
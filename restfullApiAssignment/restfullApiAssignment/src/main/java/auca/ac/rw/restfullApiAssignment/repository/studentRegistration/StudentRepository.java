@@ -0,0 +1,263 @@
+package auca.ac.rw.restfullApiAssignment.repository.studentRegistration;
+
+import auca.ac.rw.restfullApiAssignment.modal.studentRegistration.MajorStatistics;
+import auca.ac.rw.restfullApiAssignment.modal.studentRegistration.Student;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe in-memory store for students, indexed by ID, by case-folded major
+ * and by GPA (highest first), so ranked queries cost O(log n + k).
+ * Per-major statistics are kept up to date by every write.
+ * Reads never lock; writes are serialized so every index changes together and
+ * the case-folded email, which must be unique, is checked and claimed atomically.
+ */
+public class StudentRepository {
+
+    // Hash index for O(1) lookups by ID
+    private final Map<Long, Student> studentsById = new ConcurrentHashMap<>();
+
+    // IDs are handed out in increasing order, so ID order is insertion order
+    private final ConcurrentSkipListMap<Long, Student> studentsInOrder = new ConcurrentSkipListMap<>();
+
+    // Case-folded major -> students in ID order
+    private final Map<String, ConcurrentSkipListMap<Long, Student>> studentsByMajor = new ConcurrentHashMap<>();
+
+    // Unique case-folded email -> student ID
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+
+    // GPA index ordered by (GPA descending, ID); students without a GPA are not ranked
+    private final ConcurrentSkipListMap<GpaKey, Student> studentsByGpa = new ConcurrentSkipListMap<>();
+
+    // Size of the GPA index; the skip list's own size() is a full traversal
+    private volatile int rankedCount;
+
+    // Running count / GPA statistics per major
+    private final MajorAggregates majorAggregates = new MajorAggregates();
+
+    private final AtomicLong nextId = new AtomicLong(1L);
+
+    /**
+     * Store a student that already carries its ID (e.g. seed data)
+     */
+    public synchronized void load(Student student) {
+        checkUnique(student.getEmail(), null);
+        nextId.accumulateAndGet(student.getStudentId() + 1, Math::max);
+        put(student.getStudentId(), student);
+    }
+
+    /**
+     * Assign the next free ID to the student and store it
+     *
+     * @throws DuplicateStudentException if the email is already registered
+     */
+    public synchronized Student add(Student student) {
+        checkUnique(student.getEmail(), null);
+        student.setStudentId(nextId.getAndIncrement());
+        put(student.getStudentId(), student);
+        return student;
+    }
+
+    /**
+     * Store a batch of new students under one block of IDs, skipping any whose email is
+     * already registered or repeated earlier in the batch. Returns the positions skipped.
+     */
+    public synchronized BitSet addAll(List<Student> batch) {
+        BitSet duplicates = new BitSet(batch.size());
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            String email = batch.get(i).getEmail();
+            if (email != null && (idsByEmail.containsKey(fold(email)) || !batchEmails.add(fold(email)))) {
+                duplicates.set(i);
+            }
+        }
+
+        long nextBlockId = nextId.getAndAdd(batch.size() - duplicates.cardinality());
+        for (int i = duplicates.nextClearBit(0); i < batch.size(); i = duplicates.nextClearBit(i + 1)) {
+            Student student = batch.get(i);
+            student.setStudentId(nextBlockId++);
+            put(student.getStudentId(), student);
+        }
+        return duplicates;
+    }
+
+    /**
+     * Replace the student stored under the given ID, keeping its position
+     *
+     * @throws DuplicateStudentException if the new email belongs to another student
+     */
+    public synchronized Optional<Student> replace(Long studentId, Student updatedStudent) {
+        if (!studentsById.containsKey(studentId)) {
+            return Optional.empty();
+        }
+        checkUnique(updatedStudent.getEmail(), studentId);
+        updatedStudent.setStudentId(studentId);
+        put(studentId, updatedStudent);
+        return Optional.of(updatedStudent);
+    }
+
+    public Optional<Student> findById(Long studentId) {
+        return Optional.ofNullable(studentsById.get(studentId));
+    }
+
+    /**
+     * Copy of all students in insertion order
+     */
+    public List<Student> findAll() {
+        return new ArrayList<>(studentsInOrder.values());
+    }
+
+    /**
+     * Live, weakly consistent view of all students in insertion order
+     */
+    public Collection<Student> values() {
+        return studentsInOrder.values();
+    }
+
+    /**
+     * True when a student is registered with the email (case-insensitive)
+     */
+    public boolean existsByEmail(String email) {
+        return idsByEmail.containsKey(fold(email));
+    }
+
+    /**
+     * Students of the given major (case-insensitive), in insertion order
+     */
+    public List<Student> findByMajor(String major) {
+        ConcurrentSkipListMap<Long, Student> bucket = studentsByMajor.get(fold(major));
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.values());
+    }
+
+    /**
+     * The n students with the highest GPA, best first; ties keep insertion order
+     */
+    public List<Student> findTopByGpa(int n) {
+        return take(studentsByGpa, n);
+    }
+
+    /**
+     * Students with GPA >= minGpa, best first (or worst first when ascending), at most limit rows
+     */
+    public List<Student> findByMinGpa(double minGpa, boolean ascending, int limit) {
+        NavigableMap<GpaKey, Student> atLeast = studentsByGpa.headMap(new GpaKey(minGpa, Long.MAX_VALUE), true);
+        return take(ascending ? atLeast.descendingMap() : atLeast, limit);
+    }
+
+    /**
+     * Students ranked at or above the given percentile (0 <= percentile < 100) of all GPAs,
+     * best first. Students tied with the last one in the cut are all included.
+     */
+    public List<Student> findAtOrAbovePercentile(double percentile) {
+        int cut = (int) Math.ceil(rankedCount * (100.0 - percentile) / 100.0);
+        List<Student> result = new ArrayList<>(Math.min(cut, 64));
+        double lastGpa = Double.NaN;
+        for (Student student : studentsByGpa.values()) {
+            double gpa = student.getGpa();
+            if (result.size() >= cut && gpa != lastGpa) {
+                break;
+            }
+            result.add(student);
+            lastGpa = gpa;
+        }
+        return result;
+    }
+
+    /**
+     * Count, mean / min / max GPA and GPA histogram of every major, ordered by major
+     */
+    public List<MajorStatistics> majorStatistics() {
+        return majorAggregates.statistics();
+    }
+
+    public int size() {
+        return studentsById.size();
+    }
+
+    private void put(Long studentId, Student student) {
+        Student previous = studentsById.put(studentId, student);
+        studentsInOrder.put(studentId, student);
+        reindexMajor(previous == null ? null : previous.getMajor(), student.getMajor(), student);
+        if (student.getEmail() != null) {
+            idsByEmail.put(fold(student.getEmail()), studentId);
+        }
+        if (previous != null && previous.getEmail() != null
+                && (student.getEmail() == null || !fold(previous.getEmail()).equals(fold(student.getEmail())))) {
+            idsByEmail.remove(fold(previous.getEmail()), studentId);
+        }
+        majorAggregates.put(previous, student);
+
+        // Index the new GPA before dropping the old one so readers never see a gap
+        if (student.getGpa() != null && studentsByGpa.put(new GpaKey(student.getGpa(), studentId), student) == null) {
+            rankedCount++;
+        }
+        if (previous != null && previous.getGpa() != null && !previous.getGpa().equals(student.getGpa())) {
+            studentsByGpa.remove(new GpaKey(previous.getGpa(), studentId));
+            rankedCount--;
+        }
+    }
+
+    // Must run under the write lock, right before the student is stored
+    private void checkUnique(String email, Long ownId) {
+        if (email == null) {
+            return;
+        }
+        Long owner = idsByEmail.get(fold(email));
+        if (owner != null && !owner.equals(ownId)) {
+            throw new DuplicateStudentException(email);
+        }
+    }
+
+    private void reindexMajor(String oldMajor, String newMajor, Student student) {
+        if (newMajor != null) {
+            studentsByMajor.computeIfAbsent(fold(newMajor), k -> new ConcurrentSkipListMap<>())
+                    .put(student.getStudentId(), student);
+        }
+        if (oldMajor != null && (newMajor == null || !fold(oldMajor).equals(fold(newMajor)))) {
+            String folded = fold(oldMajor);
+            ConcurrentSkipListMap<Long, Student> bucket = studentsByMajor.get(folded);
+            if (bucket != null) {
+                bucket.remove(student.getStudentId());
+                if (bucket.isEmpty()) {
+                    studentsByMajor.remove(folded);
+                }
+            }
+        }
+    }
+
+    private static List<Student> take(NavigableMap<GpaKey, Student> ranked, int limit) {
+        List<Student> result = new ArrayList<>(Math.min(limit, 64));
+        for (Student student : ranked.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(student);
+        }
+        return result;
+    }
+
+    private static String fold(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    // Highest GPA first, then ID order
+    private record GpaKey(double gpa, long studentId) implements Comparable<GpaKey> {
+        @Override
+        public int compareTo(GpaKey other) {
+            int byGpa = Double.compare(other.gpa, gpa);
+            return byGpa != 0 ? byGpa : Long.compare(studentId, other.studentId);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package auca.ac.rw.restfullApiAssignment.repository.taskmanagement;
+
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.PriorityCount;
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.Task;
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.TaskCounts;
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.TaskPriority;
+import auca.ac.rw.restfullApiAssignment.support.CollectionVersion;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe in-memory store for tasks, indexed by ID, partitioned into one bucket per
+ * (priority, completed) pair and, for incomplete tasks with a due date, indexed by due date
+ * as an epoch day. Priorities are parsed once at ingest and stored in their canonical spelling.
+ * Reads never lock; writes are serialized so every index changes together.
+ */
+public class TaskRepository {
+
+    // Due day of a task without a due date; such tasks never reach the due-date index
+    private static final int NO_DUE_DATE = Integer.MIN_VALUE;
+
+    // Bucket "index" of a task that is not (or no longer) stored
+    private static final int NO_BUCKET = -1;
+
+    // Hash index for O(1) lookups by ID
+    private final Map<Long, Task> tasksById = new ConcurrentHashMap<>();
+
+    // IDs are handed out in increasing order, so ID order is insertion order
+    private final ConcurrentSkipListMap<Long, Task> tasksInOrder = new ConcurrentSkipListMap<>();
+
+    // One bucket per (priority, completed) pair, see bucket(); each in ID order and with its size kept alongside
+    private final List<ConcurrentSkipListMap<Long, Task>> buckets = new ArrayList<>();
+    private final AtomicInteger[] bucketSizes = new AtomicInteger[TaskPriority.values().length * 2];
+
+    // Incomplete tasks ordered by (due epoch day, ID); completed and undated tasks are not in it
+    private final ConcurrentSkipListMap<DueKey, Task> openTasksByDueDate = new ConcurrentSkipListMap<>();
+
+    // Task ID -> its key in the due-date index, so a due date is parsed only once
+    private final Map<Long, DueKey> dueKeys = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextId = new AtomicLong(1L);
+
+    // Bumped by every change, including completion in place
+    private final CollectionVersion version = new CollectionVersion("tasks");
+
+    public TaskRepository() {
+        for (int i = 0; i < bucketSizes.length; i++) {
+            buckets.add(new ConcurrentSkipListMap<>());
+            bucketSizes[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Store a task that already carries its ID (e.g. seed data)
+     *
+     * @throws IllegalArgumentException if the priority is missing or unknown,
+     *                                  or the due date is given but is not an ISO date (yyyy-MM-dd)
+     */
+    public synchronized void load(Task task) {
+        TaskPriority priority = priority(task);
+        int dueDay = dueDay(task);
+        nextId.accumulateAndGet(task.getTaskId() + 1, Math::max);
+        put(task, priority, dueDay);
+    }
+
+    /**
+     * Assign the next free ID to the task and store it
+     *
+     * @throws IllegalArgumentException if the priority is missing or unknown,
+     *                                  or the due date is given but is not an ISO date (yyyy-MM-dd)
+     */
+    public synchronized Task add(Task task) {
+        TaskPriority priority = priority(task);
+        int dueDay = dueDay(task);
+        task.setTaskId(nextId.getAndIncrement());
+        put(task, priority, dueDay);
+        return task;
+    }
+
+    /**
+     * Replace the task stored under the given ID, keeping its position
+     *
+     * @throws IllegalArgumentException if the priority is missing or unknown,
+     *                                  or the due date is given but is not an ISO date (yyyy-MM-dd)
+     */
+    public synchronized Optional<Task> replace(Long taskId, Task updatedTask) {
+        if (!tasksById.containsKey(taskId)) {
+            return Optional.empty();
+        }
+        TaskPriority priority = priority(updatedTask);
+        int dueDay = dueDay(updatedTask);
+        updatedTask.setTaskId(taskId);
+        put(updatedTask, priority, dueDay);
+        return Optional.of(updatedTask);
+    }
+
+    /**
+     * Mark the task with the given ID as completed, moving it to its priority's completed bucket
+     * and dropping it from the due-date index
+     */
+    public synchronized Optional<Task> complete(Long taskId) {
+        Task task = tasksById.get(taskId);
+        if (task == null) {
+            return Optional.empty();
+        }
+        if (!task.isCompleted()) {
+            int openBucket = bucket(task);
+            task.setCompleted(true);
+            moveBucket(task, openBucket, bucket(task));
+            unindexDueDate(taskId);
+            version.bump();
+        }
+        return Optional.of(task);
+    }
+
+    /**
+     * Remove the task with the given ID, returns false when it does not exist
+     */
+    public synchronized boolean remove(Long taskId) {
+        Task removed = tasksById.remove(taskId);
+        if (removed == null) {
+            return false;
+        }
+        tasksInOrder.remove(taskId);
+        moveBucket(removed, bucket(removed), NO_BUCKET);
+        unindexDueDate(taskId);
+        version.bump();
+        return true;
+    }
+
+    public CollectionVersion version() {
+        return version;
+    }
+
+    public Optional<Task> findById(Long taskId) {
+        return Optional.ofNullable(tasksById.get(taskId));
+    }
+
+    /**
+     * Copy of all tasks in insertion order
+     */
+    public List<Task> findAll() {
+        return new ArrayList<>(tasksInOrder.values());
+    }
+
+    /**
+     * Live, weakly consistent view of all tasks in insertion order
+     */
+    public Collection<Task> values() {
+        return tasksInOrder.values();
+    }
+
+    /**
+     * Tasks with the given priority and/or completion status (null matches any), in insertion order
+     */
+    public List<Task> findBy(TaskPriority priority, Boolean completed) {
+        if (priority == null && completed == null) {
+            return findAll();
+        }
+        List<ConcurrentSkipListMap<Long, Task>> selected = new ArrayList<>(bucketSizes.length);
+        int expected = 0;
+        for (TaskPriority p : TaskPriority.values()) {
+            if (priority != null && p != priority) {
+                continue;
+            }
+            for (boolean c : new boolean[] {false, true}) {
+                if (completed == null || c == completed) {
+                    int bucket = bucket(p, c);
+                    selected.add(buckets.get(bucket));
+                    expected += bucketSizes[bucket].get();
+                }
+            }
+        }
+        return merge(selected, expected);
+    }
+
+    /**
+     * Number of tasks per priority and completion status, read from the bucket counters
+     */
+    public synchronized TaskCounts counts() {
+        List<PriorityCount> byPriority = new ArrayList<>(TaskPriority.values().length);
+        int open = 0;
+        int completed = 0;
+        for (TaskPriority priority : TaskPriority.values()) {
+            int openCount = bucketSizes[bucket(priority, false)].get();
+            int completedCount = bucketSizes[bucket(priority, true)].get();
+            byPriority.add(new PriorityCount(priority, openCount, completedCount));
+            open += openCount;
+            completed += completedCount;
+        }
+        return new TaskCounts(open + completed, open, completed, byPriority);
+    }
+
+    /**
+     * Incomplete tasks due before the given epoch day, oldest due date first
+     */
+    public List<Task> findOverdue(long today) {
+        if (today == Long.MIN_VALUE) {
+            return new ArrayList<>();
+        }
+        return findDueBetween(Long.MIN_VALUE, today - 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Incomplete tasks due within [fromDay, toDay] (epoch days), soonest first, at most limit rows
+     */
+    public List<Task> findDueBetween(long fromDay, long toDay, int limit) {
+        if (fromDay > toDay || fromDay > Integer.MAX_VALUE || toDay <= NO_DUE_DATE) {
+            return new ArrayList<>();
+        }
+        int from = clamp(fromDay);
+        int to = clamp(toDay);
+        return take(openTasksByDueDate.subMap(
+                new DueKey(from, Long.MIN_VALUE), true,
+                new DueKey(to, Long.MAX_VALUE), true), limit);
+    }
+
+    /**
+     * The n incomplete tasks due soonest on or after the given epoch day
+     */
+    public List<Task> findNextDue(long fromDay, int n) {
+        if (fromDay > Integer.MAX_VALUE) {
+            return new ArrayList<>();
+        }
+        return take(openTasksByDueDate.tailMap(new DueKey(clamp(fromDay), Long.MIN_VALUE), true), n);
+    }
+
+    public int size() {
+        return tasksById.size();
+    }
+
+    private void put(Task task, TaskPriority priority, int dueDay) {
+        Long taskId = task.getTaskId();
+        task.setPriority(priority.name());
+        Task previous = tasksById.put(taskId, task);
+        tasksInOrder.put(taskId, task);
+        moveBucket(task, previous == null ? NO_BUCKET : bucket(previous), bucket(priority, task.isCompleted()));
+
+        // Index the new key before dropping the old one so readers never see a gap
+        DueKey newKey = task.isCompleted() || dueDay == NO_DUE_DATE ? null : new DueKey(dueDay, taskId);
+        if (newKey != null) {
+            openTasksByDueDate.put(newKey, task);
+        }
+        DueKey oldKey = newKey == null ? dueKeys.remove(taskId) : dueKeys.put(taskId, newKey);
+        if (oldKey != null && !oldKey.equals(newKey)) {
+            openTasksByDueDate.remove(oldKey);
+        }
+        version.bump();
+    }
+
+    // Index the task in the new bucket before dropping it from the old one so readers never see a gap;
+    // only the counters of buckets that actually change are touched
+    private void moveBucket(Task task, int oldBucket, int newBucket) {
+        if (newBucket != NO_BUCKET) {
+            buckets.get(newBucket).put(task.getTaskId(), task);
+        }
+        if (oldBucket == newBucket) {
+            return;
+        }
+        if (newBucket != NO_BUCKET) {
+            bucketSizes[newBucket].incrementAndGet();
+        }
+        if (oldBucket != NO_BUCKET) {
+            buckets.get(oldBucket).remove(task.getTaskId());
+            bucketSizes[oldBucket].decrementAndGet();
+        }
+    }
+
+    private void unindexDueDate(Long taskId) {
+        DueKey key = dueKeys.remove(taskId);
+        if (key != null) {
+            openTasksByDueDate.remove(key);
+        }
+    }
+
+    // Stored tasks always carry a canonical priority name, so valueOf cannot fail here
+    private static int bucket(Task task) {
+        return bucket(TaskPriority.valueOf(task.getPriority()), task.isCompleted());
+    }
+
+    private static int bucket(TaskPriority priority, boolean completed) {
+        return priority.ordinal() * 2 + (completed ? 1 : 0);
+    }
+
+    private static TaskPriority priority(Task task) {
+        TaskPriority priority = TaskPriority.parse(task.getPriority());
+        if (priority == null) {
+            throw new IllegalArgumentException("Not a valid priority: " + task.getPriority());
+        }
+        return priority;
+    }
+
+    private static int dueDay(Task task) {
+        String dueDate = task.getDueDate();
+        if (dueDate == null || dueDate.isBlank()) {
+            return NO_DUE_DATE;
+        }
+        long day;
+        try {
+            day = LocalDate.parse(dueDate.trim()).toEpochDay();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Not a valid due date: " + dueDate);
+        }
+        if (day <= NO_DUE_DATE || day > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Due date out of range: " + dueDate);
+        }
+        return (int) day;
+    }
+
+    // Only for bounds already checked to overlap the range of stored due days
+    private static int clamp(long day) {
+        return (int) Math.max(NO_DUE_DATE + 1L, Math.min(Integer.MAX_VALUE, day));
+    }
+
+    private static List<Task> take(NavigableMap<DueKey, Task> range, int limit) {
+        List<Task> result = new ArrayList<>(Math.min(limit, 64));
+        for (Task task : range.values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    // Merge buckets that are each in ID order into one list in ID order; package-private for tests
+    static List<Task> merge(List<ConcurrentSkipListMap<Long, Task>> selected, int expected) {
+        List<Task> result = new ArrayList<>(Math.max(expected, 0));
+        if (selected.size() == 1) {
+            result.addAll(selected.get(0).values());
+            return result;
+        }
+        List<Iterator<Task>> iterators = new ArrayList<>(selected.size());
+        Task[] heads = new Task[selected.size()];
+        for (int i = 0; i < heads.length; i++) {
+            Iterator<Task> iterator = selected.get(i).values().iterator();
+            iterators.add(iterator);
+            heads[i] = iterator.hasNext() ? iterator.next() : null;
+        }
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (heads[i] != null && (next < 0 || heads[i].getTaskId() < heads[next].getTaskId())) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                return result;
+            }
+            // A task moving between two of the buckets can be met twice, always back to back
+            if (result.isEmpty() || !result.get(result.size() - 1).getTaskId().equals(heads[next].getTaskId())) {
+                result.add(heads[next]);
+            }
+            heads[next] = iterators.get(next).hasNext() ? iterators.get(next).next() : null;
+        }
+    }
+
+    private record DueKey(int epochDay, long taskId) implements Comparable<DueKey> {
+        @Override
+        public int compareTo(DueKey other) {
+            int byDay = Integer.compare(epochDay, other.epochDay);
+            return byDay != 0 ? byDay : Long.compare(taskId, other.taskId);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package auca.ac.rw.restfullApiAssignment.repository.userprofile;
+
+/**
+ * Thrown when a username or email is already taken by another user profile
+ */
+public class DuplicateUserException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DuplicateUserException(String field, String value) {
+        super("User profile already exists with " + field + ": " + value);
+    }
+}
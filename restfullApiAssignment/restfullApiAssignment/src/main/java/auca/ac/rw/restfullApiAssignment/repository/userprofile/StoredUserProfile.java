@@ -0,0 +1,64 @@
+package auca.ac.rw.restfullApiAssignment.repository.userprofile;
+
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.UserProfile;
+
+/**
+ * Read-only profile version as published by UserProfileRepository. Every setter throws,
+ * so a caller holding a stored profile cannot change it behind the indexes' back;
+ * copy it with {@code new UserProfile(stored)} to get an editable profile.
+ */
+final class StoredUserProfile extends UserProfile {
+
+    StoredUserProfile(UserProfile source) {
+        super(source);
+    }
+
+    @Override
+    public void setUserId(Long userId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setUsername(String username) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setEmail(String email) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setFullName(String fullName) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setAge(int age) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setCountry(String country) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setBio(String bio) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setActive(boolean active) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setInactiveSince(String inactiveSince) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Stored profiles are read-only; change a copy and store it");
+    }
+}
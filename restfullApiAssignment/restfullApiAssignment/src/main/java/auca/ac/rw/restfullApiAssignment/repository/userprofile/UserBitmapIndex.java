@@ -0,0 +1,153 @@
+package auca.ac.rw.restfullApiAssignment.repository.userprofile;
+
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.UserProfile;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap indexes over user IDs: one bitmap per country, one per age and one for
+ * the active flag. IDs are allocated densely, so a combined filter is a handful of
+ * word-wise ANDs and a count is a popcount, without touching any profile.
+ */
+class UserBitmapIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final BitSet all = new BitSet();
+    private final BitSet active = new BitSet();
+    private final Map<String, BitSet> byCountry = new HashMap<>();
+    private final TreeMap<Integer, BitSet> byAge = new TreeMap<>();
+
+    /**
+     * Index the profile, replacing whatever was indexed for the previous version
+     */
+    void put(UserProfile previous, UserProfile current) {
+        int bit = bit(current.getUserId());
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                clear(previous, bit);
+            }
+            all.set(bit);
+            active.set(bit, current.isActive());
+            if (current.getCountry() != null) {
+                byCountry.computeIfAbsent(fold(current.getCountry()), c -> new BitSet()).set(bit);
+            }
+            byAge.computeIfAbsent(current.getAge(), a -> new BitSet()).set(bit);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UserProfile removed) {
+        lock.writeLock().lock();
+        try {
+            clear(removed, bit(removed.getUserId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Set or clear the active bit of every ID in the given bitmap at once
+     */
+    void setActive(BitSet userIds, boolean isActive) {
+        lock.writeLock().lock();
+        try {
+            if (isActive) {
+                active.or(userIds);
+            } else {
+                active.andNot(userIds);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeAll(Collection<UserProfile> removed) {
+        lock.writeLock().lock();
+        try {
+            for (UserProfile user : removed) {
+                clear(user, bit(user.getUserId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs matching every given filter; null filters match everyone
+     */
+    BitSet query(String country, Integer minAge, Integer maxAge, Boolean isActive) {
+        lock.readLock().lock();
+        try {
+            BitSet result;
+            if (country != null) {
+                BitSet countryBits = byCountry.get(fold(country));
+                if (countryBits == null) {
+                    return new BitSet();
+                }
+                result = (BitSet) countryBits.clone();
+            } else {
+                result = (BitSet) all.clone();
+            }
+
+            if (minAge != null || maxAge != null) {
+                int from = minAge == null ? Integer.MIN_VALUE : minAge;
+                int to = maxAge == null ? Integer.MAX_VALUE : maxAge;
+                BitSet ages = new BitSet();
+                if (from <= to) {
+                    for (BitSet ageBits : byAge.subMap(from, true, to, true).values()) {
+                        ages.or(ageBits);
+                    }
+                }
+                result.and(ages);
+            }
+
+            if (isActive != null) {
+                if (isActive) {
+                    result.and(active);
+                } else {
+                    result.andNot(active);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void clear(UserProfile user, int bit) {
+        all.clear(bit);
+        active.clear(bit);
+        if (user.getCountry() != null) {
+            clearBit(byCountry, fold(user.getCountry()), bit);
+        }
+        clearBit(byAge, user.getAge(), bit);
+    }
+
+    private static <K> void clearBit(Map<K, BitSet> index, K key, int bit) {
+        BitSet bits = index.get(key);
+        if (bits != null) {
+            bits.clear(bit);
+            if (bits.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static int bit(Long userId) {
+        return Math.toIntExact(userId);
+    }
+
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
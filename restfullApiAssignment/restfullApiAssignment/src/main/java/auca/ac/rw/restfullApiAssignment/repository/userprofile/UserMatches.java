@@ -0,0 +1,33 @@
+package auca.ac.rw.restfullApiAssignment.repository.userprofile;
+
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.UserProfile;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Result of a bitmap query, in ID order. The profiles were resolved at the same
+ * point in time as the bitmap query, so the count and the rows always agree and
+ * later changes to the store do not leak into a response that is still streaming.
+ */
+public class UserMatches implements Iterable<UserProfile> {
+
+    private final List<UserProfile> users;
+
+    UserMatches(List<UserProfile> users) {
+        this.users = users;
+    }
+
+    public int count() {
+        return users.size();
+    }
+
+    @Override
+    public Iterator<UserProfile> iterator() {
+        return users.iterator();
+    }
+
+    List<UserProfile> users() {
+        return users;
+    }
+}
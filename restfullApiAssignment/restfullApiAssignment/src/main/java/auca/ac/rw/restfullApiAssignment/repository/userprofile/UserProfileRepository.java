@@ -0,0 +1,465 @@
+package auca.ac.rw.restfullApiAssignment.repository.userprofile;
+
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.BulkUserRequest;
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.UserProfile;
+import auca.ac.rw.restfullApiAssignment.support.CollectionVersion;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe in-memory store for user profiles, indexed by ID and by
+ * case-folded username and email, both of which must be unique.
+ * Country, age and active filters are answered from bitmap indexes.
+ * Bulk operations select their profiles from the same bitmaps and apply in a single write.
+ *
+ * Stored profiles are immutable versions: writers copy, change and publish a new
+ * read-only instance whose setters throw, so a reader never sees a half-updated
+ * profile and no caller can change one behind the indexes' back. Writes are serialized and
+ * bracketed by a sequence counter (odd while a write is in progress), which lets
+ * {@link #snapshot()} and {@link #match} build consistent results without locking, in the manner of a seqlock.
+ */
+public class UserProfileRepository {
+
+    // Hash index for O(1) lookups by ID
+    private final Map<Long, UserProfile> usersById = new ConcurrentHashMap<>();
+
+    // IDs are handed out in increasing order, so ID order is insertion order
+    private final ConcurrentSkipListMap<Long, UserProfile> usersInOrder = new ConcurrentSkipListMap<>();
+
+    // Unique case-folded username / email -> user ID
+    private final Map<String, Long> idsByUsername = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+
+    // Bitmaps for country / age / active filters
+    private final UserBitmapIndex bitmaps = new UserBitmapIndex();
+
+    private final AtomicLong nextId = new AtomicLong(1L);
+
+    // Bumped by every change to a profile
+    private final CollectionVersion version = new CollectionVersion("users");
+
+    private static final int OPTIMISTIC_SNAPSHOT_ATTEMPTS = 8;
+
+    // Incremented before and after every write, so it is odd while a write is in progress
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    // Last consistent list of all profiles, reused until the next write
+    private volatile Snapshot snapshot;
+
+    /**
+     * Store a profile that already carries its ID (e.g. seed data). A recorded inactiveSince
+     * is kept only if the profile is inactive and the value is an ISO date.
+     */
+    public synchronized void load(UserProfile userProfile) {
+        checkUnique(userProfile, null);
+        nextId.accumulateAndGet(userProfile.getUserId() + 1, Math::max);
+        UserProfile draft = new UserProfile(userProfile);
+        draft.setInactiveSince(draft.isActive() ? null : isoDateOrNull(draft.getInactiveSince()));
+        beginWrite();
+        try {
+            put(draft.getUserId(), new StoredUserProfile(draft));
+        } finally {
+            endWrite();
+        }
+    }
+
+    /**
+     * Assign the next free ID to the profile and store it. Any client-supplied inactiveSince
+     * is ignored: the store stamps today for an inactive profile.
+     *
+     * @throws DuplicateUserException if the username or email is already taken
+     */
+    public synchronized UserProfile add(UserProfile userProfile) {
+        checkUnique(userProfile, null);
+        UserProfile draft = new UserProfile(userProfile);
+        draft.setUserId(nextId.getAndIncrement());
+        draft.setInactiveSince(inactiveSince(null, draft.isActive()));
+        UserProfile stored = new StoredUserProfile(draft);
+        beginWrite();
+        try {
+            put(stored.getUserId(), stored);
+        } finally {
+            endWrite();
+        }
+        return stored;
+    }
+
+    /**
+     * Replace the profile stored under the given ID, keeping its position
+     *
+     * @throws DuplicateUserException if the new username or email belongs to another profile
+     */
+    public synchronized Optional<UserProfile> replace(Long userId, UserProfile updatedProfile) {
+        if (!usersById.containsKey(userId)) {
+            return Optional.empty();
+        }
+        checkUnique(updatedProfile, userId);
+        UserProfile draft = new UserProfile(updatedProfile);
+        draft.setUserId(userId);
+        draft.setInactiveSince(inactiveSince(usersById.get(userId), draft.isActive()));
+        UserProfile stored = new StoredUserProfile(draft);
+        beginWrite();
+        try {
+            put(userId, stored);
+        } finally {
+            endWrite();
+        }
+        return Optional.of(stored);
+    }
+
+    /**
+     * Set the active flag of the profile with the given ID
+     */
+    public synchronized Optional<UserProfile> setActive(Long userId, boolean active) {
+        UserProfile current = usersById.get(userId);
+        if (current == null) {
+            return Optional.empty();
+        }
+        UserProfile draft = new UserProfile(current);
+        draft.setActive(active);
+        draft.setInactiveSince(inactiveSince(current, active));
+        UserProfile updated = new StoredUserProfile(draft);
+        beginWrite();
+        try {
+            put(userId, updated);
+        } finally {
+            endWrite();
+        }
+        return Optional.of(updated);
+    }
+
+    /**
+     * Remove the profile with the given ID, returns false when it does not exist
+     */
+    public synchronized boolean remove(Long userId) {
+        if (!usersById.containsKey(userId)) {
+            return false;
+        }
+        beginWrite();
+        try {
+            bitmaps.remove(delete(userId));
+        } finally {
+            endWrite();
+        }
+        return true;
+    }
+
+    /**
+     * Set the active flag of every selected profile in one write, with one bitmap update
+     * and one version bump for the whole batch
+     *
+     * @throws java.time.format.DateTimeParseException if inactiveSince is not an ISO date
+     */
+    public synchronized BulkUpdate setActive(BulkUserRequest request, boolean active) {
+        Selection selection = select(request);
+        String inactiveSince = active ? null : LocalDate.now().toString();
+        List<UserProfile> updates = new ArrayList<>();
+        BitSet changed = new BitSet();
+        for (int bit = selection.matches().nextSetBit(0); bit >= 0; bit = selection.matches().nextSetBit(bit + 1)) {
+            UserProfile current = usersById.get((long) bit);
+            if (current.isActive() != active) {
+                UserProfile draft = new UserProfile(current);
+                draft.setActive(active);
+                draft.setInactiveSince(inactiveSince);
+                updates.add(new StoredUserProfile(draft));
+                changed.set(bit);
+            }
+        }
+        if (!updates.isEmpty()) {
+            beginWrite();
+            try {
+                for (UserProfile updated : updates) {
+                    usersById.put(updated.getUserId(), updated);
+                    usersInOrder.put(updated.getUserId(), updated);
+                }
+                bitmaps.setActive(changed, active);
+            } finally {
+                endWrite();
+            }
+        }
+        return new BulkUpdate(selection.matches().cardinality(), selection.notFound(), ids(updates));
+    }
+
+    /**
+     * Remove every selected profile in one write, with one bitmap update and one version bump
+     *
+     * @throws java.time.format.DateTimeParseException if inactiveSince is not an ISO date
+     */
+    public synchronized BulkUpdate removeAll(BulkUserRequest request) {
+        Selection selection = select(request);
+        List<UserProfile> removed = new ArrayList<>(selection.matches().cardinality());
+        if (!selection.matches().isEmpty()) {
+            beginWrite();
+            try {
+                for (int bit = selection.matches().nextSetBit(0); bit >= 0; bit = selection.matches().nextSetBit(bit + 1)) {
+                    removed.add(delete((long) bit));
+                }
+                bitmaps.removeAll(removed);
+            } finally {
+                endWrite();
+            }
+        }
+        return new BulkUpdate(removed.size(), selection.notFound(), ids(removed));
+    }
+
+    public Optional<UserProfile> findById(Long userId) {
+        return Optional.ofNullable(usersById.get(userId));
+    }
+
+    /**
+     * Case-insensitive lookup by username
+     */
+    public Optional<UserProfile> findByUsername(String username) {
+        return lookup(idsByUsername, username);
+    }
+
+    /**
+     * Case-insensitive lookup by email
+     */
+    public Optional<UserProfile> findByEmail(String email) {
+        return lookup(idsByEmail, email);
+    }
+
+    /**
+     * Consistent, immutable list of all profiles in insertion order, as of a single point in time.
+     * Built optimistically without locking and shared by readers until the next write.
+     */
+    public List<UserProfile> snapshot() {
+        Snapshot cached = snapshot;
+        if (cached != null && cached.sequence() == writeSequence.get()) {
+            return cached.users();
+        }
+        Snapshot fresh = readConsistently(() -> List.copyOf(usersInOrder.values()));
+        snapshot = fresh;
+        return fresh.users();
+    }
+
+    /**
+     * Live, weakly consistent view of all profiles in insertion order
+     */
+    public Collection<UserProfile> values() {
+        return usersInOrder.values();
+    }
+
+    /**
+     * Profiles matching every given filter (country case-insensitive, age inclusive), in ID order;
+     * null filters match everyone
+     */
+    public List<UserProfile> query(String country, Integer minAge, Integer maxAge, Boolean active) {
+        return new ArrayList<>(match(country, minAge, maxAge, active).users());
+    }
+
+    /**
+     * Same filters as {@link #query}, as an immutable result whose rows and count come from
+     * the same point in time: the bitmap query and the profile lookups are validated against
+     * the write sequence like {@link #snapshot()}, so every row satisfies the filters
+     */
+    public UserMatches match(String country, Integer minAge, Integer maxAge, Boolean active) {
+        return new UserMatches(readConsistently(() -> {
+            BitSet userIds = bitmaps.query(country, minAge, maxAge, active);
+            UserProfile[] users = new UserProfile[userIds.cardinality()];
+            int i = 0;
+            for (int bit = userIds.nextSetBit(0); bit >= 0; bit = userIds.nextSetBit(bit + 1)) {
+                UserProfile user = usersById.get((long) bit);
+                // Only a read that overlapped a removal misses a profile, and that read is discarded
+                if (user != null) {
+                    users[i++] = user;
+                }
+            }
+            // The array never escapes, so wrapping it is as safe as List.of without a second copy
+            return Collections.unmodifiableList(Arrays.asList(i == users.length ? users : Arrays.copyOf(users, i)));
+        }).users());
+    }
+
+    /**
+     * Number of profiles matching every given filter, without materializing them
+     */
+    public int count(String country, Integer minAge, Integer maxAge, Boolean active) {
+        return bitmaps.query(country, minAge, maxAge, active).cardinality();
+    }
+
+    public CollectionVersion version() {
+        return version;
+    }
+
+    // Run the read without locking and keep it only if no write overlapped it;
+    // after repeated overlaps, wait for the writers instead of spinning
+    private Snapshot readConsistently(Supplier<List<UserProfile>> read) {
+        for (int attempt = 0; attempt < OPTIMISTIC_SNAPSHOT_ATTEMPTS; attempt++) {
+            long sequence = writeSequence.get();
+            if ((sequence & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            List<UserProfile> users = read.get();
+            if (writeSequence.get() == sequence) {
+                return new Snapshot(sequence, users);
+            }
+        }
+        synchronized (this) {
+            return new Snapshot(writeSequence.get(), read.get());
+        }
+    }
+
+    private void beginWrite() {
+        writeSequence.incrementAndGet();
+    }
+
+    private void endWrite() {
+        version.bump();
+        writeSequence.incrementAndGet();
+    }
+
+    // Callers hold the write lock, bracket the call with beginWrite / endWrite and unindex the bitmaps
+    private UserProfile delete(Long userId) {
+        UserProfile removed = usersById.remove(userId);
+        usersInOrder.remove(userId);
+        unclaim(idsByUsername, removed.getUsername(), userId);
+        unclaim(idsByEmail, removed.getEmail(), userId);
+        return removed;
+    }
+
+    // Callers hold the write lock and bracket the call with beginWrite / endWrite
+    private void put(Long userId, UserProfile userProfile) {
+        UserProfile previous = usersById.put(userId, userProfile);
+        usersInOrder.put(userId, userProfile);
+        claim(idsByUsername, userProfile.getUsername(), userId);
+        claim(idsByEmail, userProfile.getEmail(), userId);
+        if (previous != null) {
+            releaseIfChanged(idsByUsername, previous.getUsername(), userProfile.getUsername(), userId);
+            releaseIfChanged(idsByEmail, previous.getEmail(), userProfile.getEmail(), userId);
+        }
+        bitmaps.put(previous, userProfile);
+    }
+
+    // Profiles matching the bulk request: existing requested IDs (if any) that pass every filter
+    private Selection select(BulkUserRequest request) {
+        LocalDate since = request.getInactiveSince() == null ? null : LocalDate.parse(request.getInactiveSince());
+        BitSet matches = bitmaps.query(request.getCountry(), request.getMinAge(), request.getMaxAge(),
+                since == null ? null : false);
+
+        int notFound = 0;
+        if (request.getUserIds() != null) {
+            BitSet requested = new BitSet();
+            for (Long userId : request.getUserIds()) {
+                if (userId != null && usersById.containsKey(userId)) {
+                    requested.set(Math.toIntExact(userId));
+                } else {
+                    notFound++;
+                }
+            }
+            matches.and(requested);
+        }
+
+        // Inactive profiles without a recorded date are treated as inactive since forever
+        if (since != null) {
+            for (int bit = matches.nextSetBit(0); bit >= 0; bit = matches.nextSetBit(bit + 1)) {
+                String inactiveSince = usersById.get((long) bit).getInactiveSince();
+                if (inactiveSince != null && LocalDate.parse(inactiveSince).isAfter(since)) {
+                    matches.clear(bit);
+                }
+            }
+        }
+        return new Selection(matches, notFound);
+    }
+
+    // Keep the date of an earlier deactivation, stamp today for a new one
+    private static String inactiveSince(UserProfile previous, boolean active) {
+        if (active) {
+            return null;
+        }
+        if (previous != null && !previous.isActive()) {
+            return previous.getInactiveSince();
+        }
+        return LocalDate.now().toString();
+    }
+
+    private static String isoDateOrNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value).toString();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static List<Long> ids(List<UserProfile> users) {
+        List<Long> ids = new ArrayList<>(users.size());
+        for (UserProfile user : users) {
+            ids.add(user.getUserId());
+        }
+        return ids;
+    }
+
+    // Must run under the write lock, right before the profile is stored
+    private void checkUnique(UserProfile userProfile, Long ownId) {
+        checkUnique(idsByUsername, "username", userProfile.getUsername(), ownId);
+        checkUnique(idsByEmail, "email", userProfile.getEmail(), ownId);
+    }
+
+    private static void checkUnique(Map<String, Long> index, String field, String value, Long ownId) {
+        if (value == null) {
+            return;
+        }
+        Long owner = index.get(fold(value));
+        if (owner != null && !owner.equals(ownId)) {
+            throw new DuplicateUserException(field, value);
+        }
+    }
+
+    private static void claim(Map<String, Long> index, String value, Long userId) {
+        if (value != null) {
+            index.put(fold(value), userId);
+        }
+    }
+
+    private static void releaseIfChanged(Map<String, Long> index, String oldValue, String newValue, Long userId) {
+        if (oldValue != null && (newValue == null || !fold(oldValue).equals(fold(newValue)))) {
+            unclaim(index, oldValue, userId);
+        }
+    }
+
+    private static void unclaim(Map<String, Long> index, String value, Long userId) {
+        if (value != null) {
+            index.remove(fold(value), userId);
+        }
+    }
+
+    private Optional<UserProfile> lookup(Map<String, Long> index, String value) {
+        Long userId = index.get(fold(value));
+        return userId == null ? Optional.empty() : findById(userId);
+    }
+
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Outcome of a bulk operation: profiles selected, requested IDs that do not exist,
+     * and the IDs of the profiles that were actually changed
+     */
+    public record BulkUpdate(int matched, int notFound, List<Long> changedIds) {
+    }
+
+    private record Snapshot(long sequence, List<UserProfile> users) {
+    }
+
+    private record Selection(BitSet matches, int notFound) {
+    }
+}
@@ -0,0 +1,78 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes the {"success", "message", "data"} envelope straight to the response:
+ * the data array is streamed element by element from whatever the store iterates,
+ * so no response object or intermediate list is built. Field names and constant
+ * messages are encoded to UTF-8 once and copied as bytes on every request.
+ */
+public class ApiResponseWriter {
+
+    private static final SerializedString SUCCESS = new SerializedString("success");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString DATA = new SerializedString("data");
+
+    // Shared by every response; read-only headers are used as they are instead of being copied
+    private static final HttpHeaders JSON_HEADERS = jsonHeaders();
+
+    // Writes the data array in one call, so one serializer context serves every element;
+    // Jackson walks the Iterable itself, element by element
+    private final ObjectWriter dataWriter;
+
+    public ApiResponseWriter(ObjectMapper objectMapper) {
+        this.dataWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Pre-encode a message that never changes; keep the result in a static field
+     */
+    public static SerializableString constant(String message) {
+        SerializedString encoded = new SerializedString(message);
+        encoded.asQuotedUTF8();
+        return encoded;
+    }
+
+    /**
+     * 200 OK with a successful envelope whose data is the given elements, in iteration order
+     */
+    public ResponseEntity<StreamingResponseBody> ok(SerializableString message, Iterable<?> data) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = dataWriter.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeFieldName(SUCCESS);
+                generator.writeBoolean(true);
+                generator.writeFieldName(MESSAGE);
+                generator.writeString(message);
+                generator.writeFieldName(DATA);
+                dataWriter.writeValue(generator, data);
+                generator.writeEndObject();
+            }
+        };
+        return new ResponseEntity<>(body, JSON_HEADERS, HttpStatus.OK);
+    }
+
+    /**
+     * Same as {@link #ok(SerializableString, Iterable)} for a message built per request
+     */
+    public ResponseEntity<StreamingResponseBody> ok(String message, Iterable<?> data) {
+        return ok(new SerializedString(message), data);
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+}
@@ -0,0 +1,99 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Growable bit set whose bits are read and changed with lock-free atomic word updates.
+ * Bits live in fixed-size segments of atomic longs; only adding a segment takes a lock,
+ * and existing segments never move, so concurrent flips of any two bits never lose each other.
+ */
+public class AtomicBitSet {
+
+    private static final int WORDS_PER_SEGMENT = 1_024;
+    private static final int BITS_PER_SEGMENT = WORDS_PER_SEGMENT * Long.SIZE;
+
+    // Replaced (never modified) when a segment is added
+    private volatile AtomicLongArray[] segments = new AtomicLongArray[0];
+
+    public boolean get(long bit) {
+        AtomicLongArray segment = segment(bit, false);
+        return segment != null && (segment.get(word(bit)) & mask(bit)) != 0;
+    }
+
+    /**
+     * Set the bit to the value, returns its previous value
+     */
+    public boolean set(long bit, boolean value) {
+        AtomicLongArray segment = segment(bit, value);
+        if (segment == null) {
+            return false;
+        }
+        int word = word(bit);
+        long mask = mask(bit);
+        long previous = value ? segment.getAndAccumulate(word, mask, (w, m) -> w | m)
+                : segment.getAndAccumulate(word, mask, (w, m) -> w & ~m);
+        return (previous & mask) != 0;
+    }
+
+    /**
+     * Invert the bit, returns its new value
+     */
+    public boolean flip(long bit) {
+        AtomicLongArray segment = segment(bit, true);
+        int word = word(bit);
+        long mask = mask(bit);
+        return (segment.accumulateAndGet(word, mask, (w, m) -> w ^ m) & mask) != 0;
+    }
+
+    /**
+     * Calls the visitor with every set bit in ascending order; bits changed meanwhile may or may not be seen
+     */
+    public void forEachSetBit(LongConsumer visitor) {
+        AtomicLongArray[] current = segments;
+        for (int s = 0; s < current.length; s++) {
+            for (int w = 0; w < WORDS_PER_SEGMENT; w++) {
+                long bits = current[s].get(w);
+                while (bits != 0) {
+                    int offset = Long.numberOfTrailingZeros(bits);
+                    visitor.accept((long) s * BITS_PER_SEGMENT + (long) w * Long.SIZE + offset);
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    private AtomicLongArray segment(long bit, boolean create) {
+        if (bit < 0) {
+            throw new IndexOutOfBoundsException("Negative bit index: " + bit);
+        }
+        int index = Math.toIntExact(bit / BITS_PER_SEGMENT);
+        AtomicLongArray[] current = segments;
+        if (index < current.length) {
+            return current[index];
+        }
+        return create ? grow(index) : null;
+    }
+
+    private synchronized AtomicLongArray grow(int index) {
+        AtomicLongArray[] current = segments;
+        if (index >= current.length) {
+            AtomicLongArray[] grown = Arrays.copyOf(current, index + 1);
+            for (int s = current.length; s < grown.length; s++) {
+                grown[s] = new AtomicLongArray(WORDS_PER_SEGMENT);
+            }
+            segments = grown;
+            current = grown;
+        }
+        return current[index];
+    }
+
+    private static int word(long bit) {
+        return (int) (bit % BITS_PER_SEGMENT) / Long.SIZE;
+    }
+
+    private static long mask(long bit) {
+        return 1L << (bit % Long.SIZE);
+    }
+}
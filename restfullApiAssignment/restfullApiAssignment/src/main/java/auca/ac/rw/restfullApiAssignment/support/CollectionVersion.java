@@ -0,0 +1,38 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of an in-memory collection, bumped by every mutation and
+ * exposed as a strong ETag so unchanged lists can be answered with 304 Not Modified.
+ */
+public class CollectionVersion {
+
+    private final String name;
+    private final AtomicLong version = new AtomicLong();
+
+    public CollectionVersion(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Record that the collection changed
+     */
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Current version number; read it before reading the collection
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Strong ETag for the current version; read it before reading the collection
+     */
+    public String eTag() {
+        return "\"" + name + "-" + version.get() + "\"";
+    }
+}
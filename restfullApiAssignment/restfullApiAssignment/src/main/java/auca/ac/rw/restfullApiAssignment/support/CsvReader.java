@@ -0,0 +1,132 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: one record at a time, comma separated,
+ * fields optionally quoted, with "" for a literal quote inside quotes.
+ * Quoted fields may span lines; CRLF and LF line endings are both accepted.
+ * A byte order mark before the first record is skipped. Fields and records are
+ * capped in length, so an unterminated quote cannot buffer the rest of the input.
+ */
+public class CsvReader implements Closeable {
+
+    public static final int DEFAULT_MAX_FIELD_LENGTH = 64 * 1024;
+    public static final int DEFAULT_MAX_RECORD_LENGTH = 1024 * 1024;
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final BufferedReader reader;
+    private final StringBuilder field = new StringBuilder();
+    private final int maxFieldLength;
+    private final int maxRecordLength;
+    private boolean started;
+
+    public CsvReader(Reader reader) {
+        this(reader, DEFAULT_MAX_FIELD_LENGTH, DEFAULT_MAX_RECORD_LENGTH);
+    }
+
+    /**
+     * Reader whose fields may hold at most maxFieldLength characters and whose records at most
+     * maxRecordLength, counting separators, quotes and line breaks inside quotes but not the line break ending the record
+     */
+    public CsvReader(Reader reader, int maxFieldLength, int maxRecordLength) {
+        if (maxFieldLength <= 0 || maxRecordLength <= 0) {
+            throw new IllegalArgumentException("Length limits must be positive");
+        }
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.maxFieldLength = maxFieldLength;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Fields of the next record, or null at the end of the input; blank lines are skipped
+     *
+     * @throws MalformedCsvException on an unterminated quote or a field or record over its length limit
+     */
+    public String[] next() throws IOException {
+        int c = reader.read();
+        if (!started) {
+            started = true;
+            if (c == BYTE_ORDER_MARK) {
+                c = reader.read();
+            }
+        }
+        while (c == '\r' || c == '\n') {
+            c = reader.read();
+        }
+        if (c < 0) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        int recordLength = 0;
+        while (true) {
+            if (recordLength > maxRecordLength) {
+                throw new MalformedCsvException("Record longer than " + maxRecordLength + " characters");
+            }
+            if (field.length() > maxFieldLength) {
+                throw new MalformedCsvException("Field longer than " + maxFieldLength + " characters");
+            }
+            if (quoted) {
+                if (c < 0) {
+                    throw new MalformedCsvException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                        recordLength++;
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c < 0) {
+                fields.add(field.toString());
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                return fields.toArray(new String[0]);
+            } else {
+                field.append((char) c);
+            }
+            recordLength++;
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Thrown when the input is not valid CSV; reading cannot continue past it
+     */
+    public static class MalformedCsvException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        public MalformedCsvException(String message) {
+            super(message);
+        }
+    }
+}
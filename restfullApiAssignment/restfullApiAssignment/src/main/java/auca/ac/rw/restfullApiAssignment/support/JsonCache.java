@@ -0,0 +1,93 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of ready-to-write JSON bytes per entity, keyed by ID.
+ * A miss first puts a pending entry with a fresh version, then stores the render only
+ * if that exact entry is still in place; invalidate and remove replace or drop it, so
+ * a render that raced with an update to the same ID is never stored. Changes to other
+ * IDs never affect it. Only IDs that are being or were rendered have an entry, and
+ * removed entities drop theirs.
+ */
+public class JsonCache {
+
+    private final ObjectWriter writer;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Source of entry versions; never reused, so a pending entry cannot be mistaken for a newer one
+    private final AtomicLong versions = new AtomicLong();
+
+    public JsonCache(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * JSON bytes for the given ID, rendering what the loader returns on a miss.
+     * Returns null when the loader finds nothing; misses are not cached.
+     */
+    public byte[] get(Long id, Supplier<?> loader) {
+        Entry entry = entries.get(id);
+        if (entry != null && entry.json() != null) {
+            return entry.json();
+        }
+        if (entry == null) {
+            // Put the pending entry before loading so an invalidate during the load has something to replace
+            Entry pending = new Entry(versions.incrementAndGet(), null);
+            Entry existing = entries.putIfAbsent(id, pending);
+            if (existing != null && existing.json() != null) {
+                return existing.json();
+            }
+            entry = existing == null ? pending : existing;
+        }
+
+        Object value = loader.get();
+        if (value == null) {
+            entries.remove(id, entry);
+            return null;
+        }
+        byte[] json = render(value);
+        entries.replace(id, entry, new Entry(entry.version(), json));
+        return json;
+    }
+
+    /**
+     * Drop the cached JSON for the given ID; call after every successful change to the entity
+     */
+    public void invalidate(Long id) {
+        entries.computeIfPresent(id, (key, entry) -> new Entry(versions.incrementAndGet(), null));
+    }
+
+    /**
+     * Forget the given ID entirely; call after the entity was deleted
+     */
+    public void remove(Long id) {
+        entries.remove(id);
+    }
+
+    // Number of IDs with an entry, cached or invalidated
+    int size() {
+        return entries.size();
+    }
+
+    private byte[] render(Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // json is null while a render is pending or once the entry has been invalidated
+    private record Entry(long version, byte[] json) {
+    }
+}
@@ -0,0 +1,202 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fan-out of Server-Sent Events to every connected client. Idle connections cost
+ * nothing but an open socket. Every client has its own bounded queue, drained in order
+ * by its own sender thread while it has events pending, so a client whose socket stops
+ * draining only ever blocks its own thread, never the request that caused the event or
+ * the other clients. A client is dropped when its queue overflows or when a heartbeat is
+ * still unsent by the time the next one is due. The heartbeat comment also finds
+ * connections that died silently.
+ */
+public class SseBroadcaster {
+
+    // Events waiting for one client; a client that falls this far behind is dropped.
+    // Large enough to absorb a burst of menu changes for a client that is keeping up.
+    private static final int MAX_PENDING_EVENTS = 256;
+
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+    // Queued like an event, sent as an SSE comment that clients ignore
+    private static final Event HEARTBEAT = new Event(null, null);
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    // One thread per client with pending events; idle threads are reused. Platform threads,
+    // because SseEmitter.send is synchronized and a blocked write would pin a virtual thread's carrier
+    private final ExecutorService senders;
+
+    private final ScheduledExecutorService heartbeats;
+
+    public SseBroadcaster(String name) {
+        this(name, HEARTBEAT_INTERVAL);
+    }
+
+    SseBroadcaster(String name, Duration heartbeatInterval) {
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(task -> daemon(task, name + "-sse-" + threads.incrementAndGet()));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(task -> daemon(task, name + "-sse-heartbeat"));
+        long heartbeatMillis = heartbeatInterval.toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream that never times out and first receives the given event. The initial data is
+     * read under the broadcast lock, so the stream gets every event queued after that snapshot
+     * and none from before it.
+     */
+    public SseEmitter connect(String initialEvent, Supplier<?> initialData) {
+        return connect(new SseEmitter(0L), initialEvent, initialData);
+    }
+
+    synchronized SseEmitter connect(SseEmitter emitter, String initialEvent, Supplier<?> initialData) {
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+        enqueue(client, new Event(initialEvent, initialData.get()));
+        return emitter;
+    }
+
+    /**
+     * Queue the event for every connected client
+     */
+    public void broadcast(String event, Object data) {
+        broadcast(event, () -> data);
+    }
+
+    /**
+     * Queue an event whose data is read when it is queued; reading and queuing happen under one
+     * lock, so racing updates always end on the latest state. Nothing is sent when the supplier
+     * returns null.
+     */
+    public synchronized void broadcast(String event, Supplier<?> data) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        Object current = data.get();
+        if (current == null) {
+            return;
+        }
+        Event queued = new Event(event, current);
+        for (Client client : clients) {
+            enqueue(client, queued);
+        }
+    }
+
+    public int connections() {
+        return clients.size();
+    }
+
+    // A client whose previous heartbeat is still unsent has been stuck for a whole interval
+    private void heartbeat() {
+        for (Client client : clients) {
+            if (client.heartbeatPending) {
+                drop(client);
+            } else {
+                client.heartbeatPending = true;
+                enqueue(client, HEARTBEAT);
+            }
+        }
+    }
+
+    private void enqueue(Client client, Event event) {
+        if (client.dropped) {
+            return;
+        }
+        if (!client.pending.offer(event)) {
+            drop(client);
+            return;
+        }
+        if (client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    // At most one drain per client runs at a time, so each client receives its events in order.
+    // A dropped client is completed by its own drain: complete() waits for a send that is still blocked.
+    private void drain(Client client) {
+        Event event;
+        while (!client.dropped && (event = client.pending.poll()) != null) {
+            if (!send(client, event)) {
+                return;
+            }
+        }
+        if (client.dropped) {
+            client.emitter.complete();
+            return;
+        }
+        client.draining.set(false);
+        // An event queued, or a drop, after the last poll but before the flag was cleared still needs a drain
+        if ((client.dropped || !client.pending.isEmpty()) && client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    private boolean send(Client client, Event event) {
+        try {
+            if (event == HEARTBEAT) {
+                client.emitter.send(SseEmitter.event().comment("heartbeat"));
+                client.heartbeatPending = false;
+            } else {
+                client.emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            drop(client);
+            client.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void drop(Client client) {
+        client.dropped = true;
+        clients.remove(client);
+        client.pending.clear();
+        // An idle client has no drain that would complete it
+        if (client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class Client {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> pending = new ArrayBlockingQueue<>(MAX_PENDING_EVENTS);
+        // Set while a drain is scheduled or running
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean dropped;
+        // Set when a heartbeat is queued, cleared once it has been written
+        private volatile boolean heartbeatPending;
+
+        private Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private record Event(String name, Object data) {
+    }
+}
@@ -0,0 +1,78 @@
+package auca.ac.rw.restfullApiAssignment.controller.ecommerce;
+
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductControllerConcurrencyTest {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final int THREADS = 16;
+	private static final int PRODUCTS_PER_THREAD = 500;
+
+	@Test
+	void parallelPostsGetUniqueIdsAndAreAllStored() throws Exception {
+		ProductController controller = new ProductController(OBJECT_MAPPER, false);
+		int seeded = listAll(controller).size();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<List<Long>>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < THREADS; t++) {
+				Callable<List<Long>> worker = () -> {
+					start.await();
+					List<Long> ids = new ArrayList<>();
+					for (int i = 0; i < PRODUCTS_PER_THREAD; i++) {
+						Product product = new Product(null, "Product", "Load test", 1.0, "Test", 1, "Brand");
+						ids.add(controller.addProduct(product).getBody().getProductId());
+					}
+					return ids;
+				};
+				futures.add(executor.submit(worker));
+			}
+			start.countDown();
+
+			Set<Long> ids = new HashSet<>();
+			for (Future<List<Long>> future : futures) {
+				ids.addAll(future.get());
+			}
+
+			assertThat(ids).hasSize(THREADS * PRODUCTS_PER_THREAD);
+			assertThat(listAll(controller))
+					.hasSize(seeded + THREADS * PRODUCTS_PER_THREAD);
+			for (Long id : ids) {
+				assertThat(fetch(controller, id).getProductId()).isEqualTo(id);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static List<Product> listAll(ProductController controller) {
+		ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+		return controller.getAllProducts(null, null, null, request).getBody();
+	}
+
+	private static Product fetch(ProductController controller, Long productId) throws IOException {
+		return OBJECT_MAPPER.readValue(controller.getProductById(productId).getBody(), Product.class);
+	}
+
+}
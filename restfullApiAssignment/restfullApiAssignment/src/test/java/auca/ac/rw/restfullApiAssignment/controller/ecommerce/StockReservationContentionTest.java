@@ -0,0 +1,135 @@
+package auca.ac.rw.restfullApiAssignment.controller.ecommerce;
+
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Reservation;
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.ReservationItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockReservationContentionTest {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final int THREADS = 64;
+	private static final int ATTEMPTS_PER_THREAD = 2_000;
+	private static final int HOT_SKU_STOCK = 50_000;
+
+	@Test
+	void hotSkuIsNeverOversoldUnderContention(TestReporter reporter) throws Exception {
+		ProductController controller = new ProductController(OBJECT_MAPPER, false);
+		Long hotSku = controller.addProduct(
+				new Product(null, "Flash Sale Item", "Limited stock", 9.99, "Deals", HOT_SKU_STOCK, "Brand"))
+				.getBody().getProductId();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					int reserved = 0;
+					for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+						ResponseEntity<Reservation> response = controller.reserveStock(hotSku, 1);
+						if (response.getStatusCode() == HttpStatus.CREATED) {
+							reserved++;
+							// Release every other reservation so stock keeps moving both ways
+							if (i % 2 == 0) {
+								controller.releaseReservation(response.getBody().getReservationId());
+								reserved--;
+							}
+						}
+					}
+					return reserved;
+				}));
+			}
+			long startedAt = System.nanoTime();
+			start.countDown();
+
+			int reserved = 0;
+			for (Future<Integer> future : futures) {
+				reserved += future.get();
+			}
+			long elapsedNanos = System.nanoTime() - startedAt;
+
+			int stockLeft = fetch(controller, hotSku).getStockQuantity();
+			assertThat(stockLeft).isGreaterThanOrEqualTo(0);
+			assertThat(reserved + stockLeft).isEqualTo(HOT_SKU_STOCK);
+
+			double opsPerSecond = THREADS * (double) ATTEMPTS_PER_THREAD / (elapsedNanos / 1_000_000_000.0);
+			reporter.publishEntry("reservationAttemptsPerSecond", String.format("%.0f", opsPerSecond));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void cartReservationRollsBackWhenOneItemIsShort() throws Exception {
+		ProductController controller = new ProductController(OBJECT_MAPPER, false);
+		int airPodsStock = fetch(controller, 6L).getStockQuantity();
+
+		ResponseEntity<Reservation> response = controller.reserveCart(List.of(
+				new ReservationItem(6L, 1),
+				new ReservationItem(9L, 1)));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		assertThat(fetch(controller, 6L).getStockQuantity()).isEqualTo(airPodsStock);
+	}
+
+	@Test
+	void committedReservationKeepsStockAndCannotBeReleased() throws Exception {
+		ProductController controller = new ProductController(OBJECT_MAPPER, false);
+
+		Reservation reservation = controller.reserveCart(List.of(
+				new ReservationItem(5L, 3),
+				new ReservationItem(6L, 2))).getBody();
+		ResponseEntity<Reservation> committed = controller.commitReservation(reservation.getReservationId());
+
+		assertThat(committed.getBody().getStatus()).isEqualTo(Reservation.COMMITTED);
+		assertThat(controller.releaseReservation(reservation.getReservationId()).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(fetch(controller, 5L).getStockQuantity()).isEqualTo(97);
+		assertThat(fetch(controller, 6L).getStockQuantity()).isEqualTo(73);
+	}
+
+	@Test
+	void cartWhoseQuantitiesOverflowIsRejectedWithoutTouchingStock() throws Exception {
+		ProductController controller = new ProductController(OBJECT_MAPPER, false);
+		int headphonesStock = fetch(controller, 5L).getStockQuantity();
+
+		ResponseEntity<Reservation> response = controller.reserveCart(List.of(
+				new ReservationItem(5L, Integer.MAX_VALUE),
+				new ReservationItem(5L, 2)));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(fetch(controller, 5L).getStockQuantity()).isEqualTo(headphonesStock);
+	}
+
+	@Test
+	void nonPositiveQuantityCannotBeTakenFromStock() {
+		Product product = new Product(1L, "Item", "Item", 1.0, "Misc", 10, "Brand");
+
+		assertThatThrownBy(() -> product.tryTakeStock(-5)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> product.tryTakeStock(0)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(product.getStockQuantity()).isEqualTo(10);
+	}
+
+	private static Product fetch(ProductController controller, Long productId) throws IOException {
+		return OBJECT_MAPPER.readValue(controller.getProductById(productId).getBody(), Product.class);
+	}
+
+}
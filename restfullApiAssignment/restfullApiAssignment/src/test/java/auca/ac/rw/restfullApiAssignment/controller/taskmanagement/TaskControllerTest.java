@@ -0,0 +1,60 @@
+package auca.ac.rw.restfullApiAssignment.controller.taskmanagement;
+
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskControllerTest {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	// Well after the seed tasks, so only the tasks created here are due around it
+	private static final LocalDate DAY = LocalDate.of(2030, 3, 10);
+
+	@Test
+	void dueAfterAndBeforeAreExclusive() {
+		TaskController controller = new TaskController(OBJECT_MAPPER);
+		long onDay = create(controller, DAY);
+		long dayAfter = create(controller, DAY.plusDays(1));
+		long twoDaysAfter = create(controller, DAY.plusDays(2));
+
+		assertThat(due(controller, DAY, DAY.plusDays(2), null)).containsExactly(dayAfter);
+		assertThat(due(controller, DAY.minusDays(1), DAY.plusDays(3), null)).containsExactly(onDay, dayAfter, twoDaysAfter);
+		assertThat(due(controller, DAY.minusDays(1), DAY.plusDays(3), 2)).containsExactly(onDay, dayAfter);
+		assertThat(due(controller, DAY.plusDays(1), null, null)).containsExactly(twoDaysAfter);
+		assertThat(due(controller, DAY, DAY.plusDays(1), null)).isEmpty();
+
+		assertThat(controller.getTasksDueBetween(DAY, null, 0).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void unknownPriorityIsABadRequestOnEveryEndpoint() {
+		TaskController controller = new TaskController(OBJECT_MAPPER);
+
+		assertThat(controller.getTasksByPriority("urgent").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(controller.filterTasks("urgent", null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(controller.createTask(new Task(null, "Task", "Description", false, "urgent", null)).getStatusCode())
+				.isEqualTo(HttpStatus.BAD_REQUEST);
+
+		assertThat(controller.getTasksByPriority(" high ").getBody())
+				.extracting(Task::getPriority).isNotEmpty().containsOnly("HIGH");
+		assertThat(controller.filterTasks("High", false).getBody())
+				.extracting(Task::getPriority).isNotEmpty().containsOnly("HIGH");
+	}
+
+	private static long create(TaskController controller, LocalDate due) {
+		Task task = new Task(null, "Task", "Description", false, "HIGH", due.toString());
+		return controller.createTask(task).getBody().getTaskId();
+	}
+
+	private static List<Long> due(TaskController controller, LocalDate after, LocalDate before, Integer limit) {
+		return controller.getTasksDueBetween(after, before, limit).getBody().stream().map(Task::getTaskId).toList();
+	}
+
+}
@@ -0,0 +1,134 @@
+package auca.ac.rw.restfullApiAssignment.repository.ecommerce;
+
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductColumnsScanTest {
+
+	private static final String[] CATEGORIES = {"Electronics", "Audio", "Footwear", "Clothing", "Books", "Toys", "Garden", "Sports"};
+	private static final String[] BRANDS = {"Apple", "Samsung", "Sony", "Nike", "Adidas", "Levi's", "Canon", "Dell", "Lego", "Bosch"};
+
+	private static final int SCAN_ROWS = 1_000_000;
+	private static final int TIMED_RUNS = 5;
+
+	@Test
+	void columnarScanMatchesRowScanAfterReplacesStockChangesAndDeletes() {
+		ProductRepository rows = new ProductRepository(false);
+		ProductRepository columns = new ProductRepository(true);
+		for (long id = 1; id <= 500; id++) {
+			rows.add(product(id));
+			columns.add(product(id));
+		}
+		for (long id = 1; id <= 500; id += 3) {
+			rows.replace(id, product(id * 7));
+			columns.replace(id, product(id * 7));
+		}
+		for (long id = 2; id <= 500; id += 5) {
+			rows.updateStock(id, 0);
+			columns.updateStock(id, 0);
+		}
+		// Deleting every odd ID tombstones half the rows, which triggers a compaction; later deletes land on compacted rows
+		for (long id = 1; id <= 500; id += 2) {
+			rows.remove(id);
+			columns.remove(id);
+		}
+		for (long id = 4; id <= 300; id += 4) {
+			rows.remove(id);
+			columns.remove(id);
+			rows.updateStock(id + 2, 5);
+			columns.updateStock(id + 2, 5);
+		}
+		rows.add(product(501));
+		columns.add(product(501));
+
+		assertSameScans(rows, columns);
+	}
+
+	@Test
+	@Tag("benchmark")
+	void columnarScanVersusArrayListScanAtOneMillionRows(TestReporter reporter) {
+		List<Product> arrayList = new ArrayList<>(SCAN_ROWS);
+		ProductColumns productColumns = new ProductColumns();
+		for (long id = 1; id <= SCAN_ROWS; id++) {
+			Product product = product(id);
+			product.setProductId(id);
+			arrayList.add(product);
+			productColumns.put(product);
+		}
+
+		String category = CATEGORIES[2];
+		String brand = BRANDS[3];
+		List<Product> expected = arrayListScan(arrayList, category, brand);
+		assertThat(productColumns.inStock(category, brand)).containsExactlyElementsOf(expected);
+
+		long arrayListNanos = bestOf(() -> arrayListScan(arrayList, category, brand));
+		long columnarNanos = bestOf(() -> productColumns.inStock(category, brand));
+		reporter.publishEntry("arrayListScanMicros", String.valueOf(arrayListNanos / 1_000));
+		reporter.publishEntry("columnarScanMicros", String.valueOf(columnarNanos / 1_000));
+		reporter.publishEntry("matchingRows", String.valueOf(expected.size()));
+	}
+
+	// The scan GET /api/products/in-stock ran over the ArrayList<Product> before the columnar mode
+	private static List<Product> arrayListScan(List<Product> products, String category, String brand) {
+		List<Product> result = new ArrayList<>();
+		for (Product product : products) {
+			if (product.getStockQuantity() > 0
+					&& product.getCategory().equalsIgnoreCase(category)
+					&& product.getBrand().equalsIgnoreCase(brand)) {
+				result.add(product);
+			}
+		}
+		return result;
+	}
+
+	// Warm up, then keep the fastest of TIMED_RUNS runs
+	private static long bestOf(Supplier<List<Product>> scan) {
+		for (int i = 0; i < TIMED_RUNS; i++) {
+			scan.get();
+		}
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < TIMED_RUNS; i++) {
+			long startedAt = System.nanoTime();
+			List<Product> result = scan.get();
+			best = Math.min(best, System.nanoTime() - startedAt);
+			assertThat(result).isNotEmpty();
+		}
+		return best;
+	}
+
+	// Each repository holds its own instances, so scans are compared by product ID
+	private static void assertSameScans(ProductRepository rows, ProductRepository columns) {
+		assertThat(ids(columns.findInStock(null, null))).isNotEmpty().isEqualTo(ids(rows.findInStock(null, null)));
+		for (String category : CATEGORIES) {
+			assertThat(ids(columns.findInStock(category.toUpperCase(), null)))
+					.isEqualTo(ids(rows.findInStock(category.toUpperCase(), null)));
+			for (String brand : BRANDS) {
+				assertThat(ids(columns.findInStock(category, brand))).isEqualTo(ids(rows.findInStock(category, brand)));
+			}
+		}
+		for (String brand : BRANDS) {
+			assertThat(ids(columns.findInStock(null, brand))).isEqualTo(ids(rows.findInStock(null, brand)));
+		}
+		assertThat(columns.findInStock("Unknown", null)).isEmpty();
+	}
+
+	private static List<Long> ids(List<Product> products) {
+		return products.stream().map(Product::getProductId).toList();
+	}
+
+	// Deterministic spread over categories, brands and stock (every fourth product is out of stock)
+	private static Product product(long seed) {
+		return new Product(null, "Product " + seed, "Description", 10.0 + seed % 500,
+				CATEGORIES[(int) (seed % CATEGORIES.length)], (int) (seed % 4) * 10,
+				BRANDS[(int) (seed / 3 % BRANDS.length)]);
+	}
+
+}
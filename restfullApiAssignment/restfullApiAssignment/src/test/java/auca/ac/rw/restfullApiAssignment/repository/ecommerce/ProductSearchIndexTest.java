@@ -0,0 +1,96 @@
+package auca.ac.rw.restfullApiAssignment.repository.ecommerce;
+
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+	private static final String[] NAMES = {"iPhone 15 Pro", "Galaxy S24", "XPS 15", "Air Max", "Kindle", "Q", "", null};
+	private static final String[] DESCRIPTIONS = {"Flagship phone", "16-inch laptop", "Running shoes", "E-reader", "x", null};
+
+	private static final String[] QUERIES = {
+			"p", "P", "q", "x", "1", " ", "-", "z",
+			"ph", "15", "e-", "xp", "zz",
+			"pro", "max", "ind", "sho", "zzz",
+			"phone", "15 pro", "laptop", "running shoes", "missing"};
+
+	@Test
+	void keywordsOfEveryLengthMatchLikeASubstringScan() {
+		ProductSearchIndex index = new ProductSearchIndex();
+		Map<Long, Product> products = new TreeMap<>();
+		for (long id = 1; id <= 200; id++) {
+			Product product = product(id, (int) id);
+			products.put(id, product);
+			index.put(product);
+		}
+		assertSameAsScan(index, products);
+
+		// Replaced text drops its old grams, removed products drop all of theirs
+		for (long id = 1; id <= 200; id += 3) {
+			Product product = product(id, (int) id * 7 + 1);
+			products.put(id, product);
+			index.put(product);
+		}
+		for (long id = 2; id <= 200; id += 4) {
+			products.remove(id);
+			index.remove(id);
+		}
+		assertSameAsScan(index, products);
+	}
+
+	@Test
+	void nameHitsComeBeforeDescriptionOnlyHits() {
+		ProductSearchIndex index = new ProductSearchIndex();
+		index.put(withText(1L, "Case", "Fits the phone"));
+		index.put(withText(2L, "Phone", "Unlocked"));
+		index.put(withText(3L, "Cable", "Charges a phone"));
+
+		assertThat(index.search("ph")).containsExactly(2L, 1L, 3L);
+		assertThat(index.search("C")).containsExactly(1L, 3L, 2L);
+		assertThat(index.search("")).isEmpty();
+		assertThat(index.search(null)).isEmpty();
+	}
+
+	private static void assertSameAsScan(ProductSearchIndex index, Map<Long, Product> products) {
+		for (String query : QUERIES) {
+			assertThat(index.search(query)).as(query).isEqualTo(scan(products, query));
+		}
+	}
+
+	// The search before the index: a substring check on every product, name hits first
+	private static List<Long> scan(Map<Long, Product> products, String keyword) {
+		String query = keyword.toLowerCase(Locale.ROOT);
+		List<Long> nameHits = new ArrayList<>();
+		List<Long> descriptionHits = new ArrayList<>();
+		for (Product product : products.values()) {
+			if (lower(product.getName()).contains(query)) {
+				nameHits.add(product.getProductId());
+			} else if (lower(product.getDescription()).contains(query)) {
+				descriptionHits.add(product.getProductId());
+			}
+		}
+		nameHits.addAll(descriptionHits);
+		return nameHits;
+	}
+
+	private static String lower(String text) {
+		return text == null ? "" : text.toLowerCase(Locale.ROOT);
+	}
+
+	private static Product product(long id, int seed) {
+		return withText(id, NAMES[seed % NAMES.length], DESCRIPTIONS[seed % DESCRIPTIONS.length]);
+	}
+
+	private static Product withText(long id, String name, String description) {
+		return new Product(id, name, description, 1.0, "Category", 1, "Brand");
+	}
+
+}
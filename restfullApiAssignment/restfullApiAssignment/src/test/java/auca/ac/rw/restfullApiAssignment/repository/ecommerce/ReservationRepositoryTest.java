@@ -0,0 +1,98 @@
+package auca.ac.rw.restfullApiAssignment.repository.ecommerce;
+
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Product;
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.Reservation;
+import auca.ac.rw.restfullApiAssignment.modal.ecommerce.ReservationItem;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationRepositoryTest {
+
+	private static final Duration HOLD = Duration.ofMinutes(15);
+
+	private final AtomicLong now = new AtomicLong();
+	private final List<Long> returned = new ArrayList<>();
+	private final ProductRepository products = new ProductRepository();
+	private final ReservationRepository reservations = new ReservationRepository(products, HOLD, now::get, returned::add);
+
+	@Test
+	void abandonedReservationGivesItsStockBackOnceTheHoldRunsOut() {
+		products.load(product(1L, 5));
+		Reservation abandoned = reservations.reserve(List.of(new ReservationItem(1L, 5))).orElseThrow();
+		assertThat(reservations.reserve(List.of(new ReservationItem(1L, 1)))).isEmpty();
+
+		now.addAndGet(HOLD.toNanos() - 1);
+		assertThat(reservations.expire()).isZero();
+		assertThat(stock(1L)).isZero();
+
+		// The next reserve sweeps the expired hold before taking stock
+		now.addAndGet(1);
+		assertThat(reservations.reserve(List.of(new ReservationItem(1L, 2)))).isPresent();
+		assertThat(stock(1L)).isEqualTo(3);
+		assertThat(returned).containsExactly(1L);
+
+		assertThat(reservations.commit(abandoned.getReservationId())).isEmpty();
+		assertThat(reservations.release(abandoned.getReservationId())).isEmpty();
+		assertThat(stock(1L)).isEqualTo(3);
+	}
+
+	@Test
+	void expiredReservationCannotBeCommittedAndStillReturnsItsStock() {
+		products.load(product(1L, 5));
+		Reservation reservation = reservations.reserve(List.of(new ReservationItem(1L, 4))).orElseThrow();
+
+		now.addAndGet(HOLD.toNanos());
+		assertThat(reservations.commit(reservation.getReservationId())).isEmpty();
+		assertThat(stock(1L)).isEqualTo(5);
+		assertThat(returned).containsExactly(1L);
+
+		// The sweep finds the hold already gone and returns nothing twice
+		assertThat(reservations.expire()).isZero();
+		assertThat(stock(1L)).isEqualTo(5);
+	}
+
+	@Test
+	void committedAndReleasedReservationsNeverExpire() {
+		products.load(product(1L, 10));
+		Reservation committed = reservations.reserve(List.of(new ReservationItem(1L, 3))).orElseThrow();
+		Reservation released = reservations.reserve(List.of(new ReservationItem(1L, 2))).orElseThrow();
+		assertThat(reservations.commit(committed.getReservationId())).isPresent();
+		assertThat(reservations.release(released.getReservationId())).isPresent();
+
+		now.addAndGet(HOLD.toNanos() * 2);
+		assertThat(reservations.expire()).isZero();
+		assertThat(stock(1L)).isEqualTo(7);
+		assertThat(returned).isEmpty();
+	}
+
+	@Test
+	void replacingAProductKeepsTheStockHeldAgainstIt() {
+		products.load(product(1L, 10));
+		Reservation reservation = reservations.reserve(List.of(new ReservationItem(1L, 4))).orElseThrow();
+		Product previous = products.findById(1L).orElseThrow();
+
+		// The replacement's own stock count is ignored in favour of the live one
+		products.replace(1L, product(1L, 100));
+		assertThat(stock(1L)).isEqualTo(6);
+
+		// Stock taken through the old instance still lands on the live count
+		assertThat(previous.tryTakeStock(1)).isTrue();
+		assertThat(reservations.release(reservation.getReservationId())).isPresent();
+		assertThat(stock(1L)).isEqualTo(9);
+	}
+
+	private int stock(Long productId) {
+		return products.findById(productId).orElseThrow().getStockQuantity();
+	}
+
+	private static Product product(Long id, int stock) {
+		return new Product(id, "Product " + id, "Description " + id, 10.0, "Category", stock, "Brand");
+	}
+
+}
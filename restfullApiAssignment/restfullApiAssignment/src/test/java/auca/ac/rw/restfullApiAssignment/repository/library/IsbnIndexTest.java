@@ -0,0 +1,108 @@
+package auca.ac.rw.restfullApiAssignment.repository.library;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsbnIndexTest {
+
+	// Capacity of a new index
+	private static final int INITIAL_MASK = 63;
+
+	@Test
+	void isbn10AndIsbn13OfTheSameBookShareOneKey() {
+		IsbnIndex index = new IsbnIndex();
+		index.put(Isbn.toKey("0-306-40615-2"), 7L);
+		index.put(Isbn.toKey("080442957X"), 8L);
+
+		assertThat(index.get(Isbn.toKey("978-0-306-40615-7"))).isEqualTo(7L);
+		assertThat(index.get(Isbn.toKey("978 0 8044 2957 3"))).isEqualTo(8L);
+
+		// Storing the ISBN-13 form overwrites the ISBN-10 entry instead of adding a second one
+		index.put(Isbn.toKey("9780306406157"), 9L);
+		assertThat(index.get(Isbn.toKey("0306406152"))).isEqualTo(9L);
+		index.remove(Isbn.toKey("0306406152"));
+		assertThat(index.get(Isbn.toKey("9780306406157"))).isEqualTo(-1L);
+		assertThat(index.get(Isbn.toKey("080442957X"))).isEqualTo(8L);
+	}
+
+	@Test
+	void keysThatCollideStayReachableAfterAnyOfThemIsRemoved() {
+		List<Long> colliding = keysWithHomeSlot(5, 4);
+
+		for (int removed = 0; removed < colliding.size(); removed++) {
+			IsbnIndex index = new IsbnIndex();
+			for (int i = 0; i < colliding.size(); i++) {
+				index.put(colliding.get(i), i + 1L);
+			}
+
+			index.remove(colliding.get(removed));
+
+			for (int i = 0; i < colliding.size(); i++) {
+				assertThat(index.get(colliding.get(i))).isEqualTo(i == removed ? -1L : i + 1L);
+			}
+		}
+	}
+
+	@Test
+	void removeShiftsBackEntriesWhoseRunWrapsAroundTheTable() {
+		// Home slots at the end of the table push the run over into slot 0
+		List<Long> keys = new ArrayList<>(keysWithHomeSlot(INITIAL_MASK, 3));
+		keys.addAll(keysWithHomeSlot(0, 2));
+		IsbnIndex index = new IsbnIndex();
+		for (int i = 0; i < keys.size(); i++) {
+			index.put(keys.get(i), i + 1L);
+		}
+
+		index.remove(keys.get(0));
+		index.remove(keys.get(3));
+
+		assertThat(index.get(keys.get(0))).isEqualTo(-1L);
+		assertThat(index.get(keys.get(1))).isEqualTo(2L);
+		assertThat(index.get(keys.get(2))).isEqualTo(3L);
+		assertThat(index.get(keys.get(3))).isEqualTo(-1L);
+		assertThat(index.get(keys.get(4))).isEqualTo(5L);
+	}
+
+	@Test
+	void matchesAHashMapThroughResizesAndDeletes() {
+		IsbnIndex index = new IsbnIndex();
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(42);
+
+		for (int op = 0; op < 50_000; op++) {
+			// Sequential keys like real ISBN ranges, drawn from a range small enough to hit repeats
+			long key = 9_780_000_000_000L + random.nextInt(20_000);
+			if (random.nextInt(3) == 0) {
+				index.remove(key);
+				expected.remove(key);
+			} else {
+				index.put(key, op);
+				expected.put(key, (long) op);
+			}
+		}
+
+		assertThat(expected.size()).isGreaterThan(64);
+		for (long key = 9_780_000_000_000L; key < 9_780_000_020_000L; key++) {
+			assertThat(index.get(key)).isEqualTo(expected.getOrDefault(key, -1L));
+		}
+	}
+
+	// ISBN-13 keys whose home slot in a new index is the given one
+	private static List<Long> keysWithHomeSlot(int slot, int count) {
+		List<Long> keys = new ArrayList<>();
+		for (long key = 9_780_000_000_000L; keys.size() < count; key++) {
+			if (IsbnIndex.slot(key, INITIAL_MASK) == slot) {
+				keys.add(key);
+			}
+		}
+		return keys;
+	}
+
+}
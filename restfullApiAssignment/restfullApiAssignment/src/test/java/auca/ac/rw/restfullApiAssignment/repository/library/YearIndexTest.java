@@ -0,0 +1,118 @@
+package auca.ac.rw.restfullApiAssignment.repository.library;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YearIndexTest {
+
+	private static final int SMALL_BUCKET = 50_000;
+	private static final int LARGE_BUCKET = 400_000;
+	private static final int TIMED_RUNS = 3;
+
+	// Linear appends take about LARGE_BUCKET / SMALL_BUCKET = 8 times as long; copying the
+	// whole bucket on every append would take 64 times as long
+	private static final int MAX_SLOWDOWN = 4 * LARGE_BUCKET / SMALL_BUCKET;
+
+	@Test
+	void rangesAndHistogramFollowAddsAndRemovesInAnyOrder() {
+		YearIndex index = new YearIndex();
+		index.add(2001, 5);
+		index.add(1999, 3);
+		index.add(2001, 2);
+		index.add(2001, 9);
+		index.add(2001, 7);
+		index.add(2003, 1);
+
+		assertThat(range(index, 1990, 2010)).containsExactly(3L, 2L, 5L, 7L, 9L, 1L);
+		assertThat(range(index, 2000, 2002)).containsExactly(2L, 5L, 7L, 9L);
+
+		index.remove(2001, 7);
+		index.remove(2001, 8);
+		index.remove(1999, 3);
+		index.remove(1850, 3);
+		index.add(2001, 6);
+
+		assertThat(range(index, 1990, 2010)).containsExactly(2L, 5L, 6L, 9L, 1L);
+		List<String> histogram = new ArrayList<>();
+		index.forEachYear((year, count) -> histogram.add(year + "=" + count));
+		assertThat(histogram).containsExactly("2001=4", "2003=1");
+	}
+
+	@Test
+	void readersSeeASortedPrefixWhileOneYearKeepsGrowing() throws Exception {
+		YearIndex index = new YearIndex();
+		AtomicBoolean writing = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Integer> reader = executor.submit(() -> {
+				int reads = 0;
+				while (writing.get()) {
+					long[] previous = {0};
+					index.forEachInRange(2020, 2020, id -> {
+						assertThat(id).isEqualTo(previous[0] + 1);
+						previous[0] = id;
+					});
+					reads++;
+				}
+				return reads;
+			});
+			for (long id = 1; id <= SMALL_BUCKET; id++) {
+				index.add(2020, id);
+			}
+			writing.set(false);
+			assertThat(reader.get()).isPositive();
+		} finally {
+			writing.set(false);
+			executor.shutdownNow();
+		}
+		assertThat(range(index, 2020, 2020)).hasSize(SMALL_BUCKET);
+	}
+
+	@Test
+	void appendingToOneYearScalesLinearly(TestReporter reporter) {
+		long small = bestAppendNanos(SMALL_BUCKET);
+		long large = bestAppendNanos(LARGE_BUCKET);
+
+		reporter.publishEntry("appendMillisFor" + SMALL_BUCKET, String.valueOf(small / 1_000_000));
+		reporter.publishEntry("appendMillisFor" + LARGE_BUCKET, String.valueOf(large / 1_000_000));
+		assertThat(large).isLessThan(small * MAX_SLOWDOWN);
+	}
+
+	// The first run also warms up the JIT
+	private static long bestAppendNanos(int books) {
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < TIMED_RUNS; i++) {
+			best = Math.min(best, appendNanos(books));
+		}
+		return best;
+	}
+
+	private static long appendNanos(int books) {
+		YearIndex index = new YearIndex();
+		long startedAt = System.nanoTime();
+		for (long id = 1; id <= books; id++) {
+			index.add(1999, id);
+		}
+		long elapsed = System.nanoTime() - startedAt;
+		List<Integer> counts = new ArrayList<>();
+		index.forEachYear((year, count) -> counts.add(count));
+		assertThat(counts).containsExactly(books);
+		return elapsed;
+	}
+
+	private static List<Long> range(YearIndex index, int from, int to) {
+		List<Long> ids = new ArrayList<>();
+		index.forEachInRange(from, to, ids::add);
+		return ids;
+	}
+
+}
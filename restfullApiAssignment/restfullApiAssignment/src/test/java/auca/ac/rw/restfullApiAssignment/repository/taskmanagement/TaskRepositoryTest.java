@@ -0,0 +1,183 @@
+package auca.ac.rw.restfullApiAssignment.repository.taskmanagement;
+
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.PriorityCount;
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.Task;
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.TaskCounts;
+import auca.ac.rw.restfullApiAssignment.modal.taskmanagement.TaskPriority;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskRepositoryTest {
+
+	private static final LocalDate DAY = LocalDate.of(2030, 3, 10);
+
+	@Test
+	void dueRangeIsInclusiveOrderedByDayThenIdAndLimited() {
+		TaskRepository tasks = new TaskRepository();
+		tasks.load(task(1L, DAY.plusDays(2)));
+		tasks.load(task(2L, DAY));
+		tasks.load(task(3L, DAY.plusDays(1)));
+		tasks.load(task(4L, DAY));
+		tasks.load(task(5L, null));
+		tasks.load(task(6L, DAY.plusDays(3)));
+
+		assertThat(ids(tasks.findDueBetween(day(0), day(2), Integer.MAX_VALUE))).containsExactly(2L, 4L, 3L, 1L);
+		assertThat(ids(tasks.findDueBetween(day(1), day(1), Integer.MAX_VALUE))).containsExactly(3L);
+		assertThat(ids(tasks.findDueBetween(day(0), day(3), 3))).containsExactly(2L, 4L, 3L);
+		assertThat(tasks.findDueBetween(day(2), day(1), Integer.MAX_VALUE)).isEmpty();
+
+		assertThat(ids(tasks.findOverdue(day(1)))).containsExactly(2L, 4L);
+		assertThat(ids(tasks.findNextDue(day(1), 2))).containsExactly(3L, 1L);
+	}
+
+	@Test
+	void updatesReKeyTheTaskAndCompletionOrDeletionDropsIt() {
+		TaskRepository tasks = new TaskRepository();
+		tasks.load(task(1L, DAY));
+		tasks.load(task(2L, DAY.plusDays(1)));
+		tasks.load(task(3L, DAY.plusDays(2)));
+
+		// Moved later, then its due date dropped
+		tasks.replace(1L, task(null, DAY.plusDays(5)));
+		assertThat(ids(tasks.findDueBetween(day(0), day(9), Integer.MAX_VALUE))).containsExactly(2L, 3L, 1L);
+		tasks.replace(1L, task(null, null));
+		assertThat(ids(tasks.findDueBetween(day(0), day(9), Integer.MAX_VALUE))).containsExactly(2L, 3L);
+
+		tasks.complete(2L);
+		Task completedByUpdate = task(null, DAY.plusDays(2));
+		completedByUpdate.setCompleted(true);
+		tasks.replace(3L, completedByUpdate);
+		assertThat(tasks.findDueBetween(day(0), day(9), Integer.MAX_VALUE)).isEmpty();
+
+		// Reopening puts the task back under its due date
+		tasks.replace(3L, task(null, DAY.plusDays(4)));
+		tasks.remove(2L);
+		assertThat(ids(tasks.findDueBetween(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE))).containsExactly(3L);
+		tasks.remove(3L);
+		assertThat(tasks.findDueBetween(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE)).isEmpty();
+	}
+
+	@Test
+	void boundsBeyondTheStoredRangeClampWithoutWrappingOrWidening() {
+		TaskRepository tasks = new TaskRepository();
+		LocalDate earliest = LocalDate.ofEpochDay(Integer.MIN_VALUE + 1L);
+		LocalDate latest = LocalDate.ofEpochDay(Integer.MAX_VALUE);
+		tasks.load(task(1L, earliest));
+		tasks.load(task(2L, DAY));
+		tasks.load(task(3L, latest));
+
+		assertThat(ids(tasks.findDueBetween(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE))).containsExactly(1L, 2L, 3L);
+		assertThat(ids(tasks.findDueBetween(Integer.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE))).containsExactly(3L);
+		assertThat(tasks.findDueBetween(Integer.MAX_VALUE + 1L, Long.MAX_VALUE, Integer.MAX_VALUE)).isEmpty();
+		assertThat(ids(tasks.findDueBetween(Long.MIN_VALUE, Integer.MIN_VALUE + 1L, Integer.MAX_VALUE))).containsExactly(1L);
+		assertThat(tasks.findDueBetween(Long.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE)).isEmpty();
+
+		assertThat(tasks.findNextDue(Long.MAX_VALUE, 5)).isEmpty();
+		assertThat(ids(tasks.findNextDue(Long.MIN_VALUE, 5))).containsExactly(1L, 2L, 3L);
+		assertThat(tasks.findOverdue(Long.MIN_VALUE)).isEmpty();
+		assertThat(ids(tasks.findOverdue(Long.MAX_VALUE))).containsExactly(1L, 2L, 3L);
+
+		// The day reserved for "no due date" and days past the int range are rejected, not silently unindexed
+		assertThatThrownBy(() -> tasks.add(task(null, LocalDate.ofEpochDay(Integer.MIN_VALUE))))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> tasks.add(task(null, LocalDate.ofEpochDay(Integer.MAX_VALUE + 1L))))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(tasks.size()).isEqualTo(3);
+	}
+
+	@Test
+	void bucketsAndCountsFollowCompleteUpdateAndDelete() {
+		TaskRepository tasks = new TaskRepository();
+		tasks.load(task(1L, "HIGH", false));
+		tasks.load(task(2L, "low", false));
+		tasks.load(task(3L, "Medium", true));
+		tasks.load(task(4L, "HIGH", false));
+
+		assertThat(counts(tasks)).containsExactly("4 total, 3 open, 1 completed", "LOW 1/0", "MEDIUM 0/1", "HIGH 2/0");
+		assertThat(ids(tasks.findBy(TaskPriority.HIGH, null))).containsExactly(1L, 4L);
+		assertThat(ids(tasks.findBy(null, false))).containsExactly(1L, 2L, 4L);
+		assertThat(ids(tasks.findBy(null, true))).containsExactly(3L);
+		assertThat(tasks.findById(2L).orElseThrow().getPriority()).isEqualTo("LOW");
+
+		// Completing twice moves the task once
+		tasks.complete(1L);
+		tasks.complete(1L);
+		assertThat(counts(tasks)).containsExactly("4 total, 2 open, 2 completed", "LOW 1/0", "MEDIUM 0/1", "HIGH 1/1");
+		assertThat(ids(tasks.findBy(TaskPriority.HIGH, true))).containsExactly(1L);
+		assertThat(ids(tasks.findBy(null, false))).containsExactly(2L, 4L);
+
+		// An update across priorities leaves the old bucket empty
+		tasks.replace(2L, task(null, "HIGH", false));
+		assertThat(counts(tasks)).containsExactly("4 total, 2 open, 2 completed", "LOW 0/0", "MEDIUM 0/1", "HIGH 2/1");
+		assertThat(tasks.findBy(TaskPriority.LOW, null)).isEmpty();
+		assertThat(ids(tasks.findBy(TaskPriority.HIGH, false))).containsExactly(2L, 4L);
+		assertThat(ids(tasks.findBy(TaskPriority.HIGH, null))).containsExactly(1L, 2L, 4L);
+
+		// Reopened by an update, in another priority again
+		tasks.replace(1L, task(null, "MEDIUM", false));
+		assertThat(counts(tasks)).containsExactly("4 total, 3 open, 1 completed", "LOW 0/0", "MEDIUM 1/1", "HIGH 2/0");
+		assertThat(ids(tasks.findBy(TaskPriority.MEDIUM, null))).containsExactly(1L, 3L);
+
+		tasks.remove(4L);
+		tasks.remove(4L);
+		assertThat(counts(tasks)).containsExactly("3 total, 2 open, 1 completed", "LOW 0/0", "MEDIUM 1/1", "HIGH 1/0");
+		assertThat(ids(tasks.findBy(null, null))).containsExactly(1L, 2L, 3L);
+		assertThat(ids(tasks.findBy(null, false))).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void mergeKeepsIdOrderAndListsATaskMetInTwoBucketsOnce() {
+		Task moving = task(5L, "HIGH", false);
+		ConcurrentSkipListMap<Long, Task> low = bucket(task(1L, "LOW", false), moving, task(8L, "LOW", false));
+		ConcurrentSkipListMap<Long, Task> medium = bucket(task(2L, "MEDIUM", false), task(9L, "MEDIUM", false));
+		// Caught between put into its new bucket and removal from the old one
+		ConcurrentSkipListMap<Long, Task> high = bucket(task(3L, "HIGH", false), moving);
+		ConcurrentSkipListMap<Long, Task> empty = bucket();
+
+		assertThat(ids(TaskRepository.merge(List.of(low, medium, high, empty), 8))).containsExactly(1L, 2L, 3L, 5L, 8L, 9L);
+		assertThat(ids(TaskRepository.merge(List.of(empty, empty), 0))).isEmpty();
+		assertThat(ids(TaskRepository.merge(List.of(high), 2))).containsExactly(3L, 5L);
+	}
+
+	private static long day(int offset) {
+		return DAY.plusDays(offset).toEpochDay();
+	}
+
+	private static Task task(Long id, LocalDate due) {
+		return new Task(id, "Task " + id, "Description", false, "medium", due == null ? null : due.toString());
+	}
+
+	private static Task task(Long id, String priority, boolean completed) {
+		return new Task(id, "Task " + id, "Description", completed, priority, null);
+	}
+
+	private static ConcurrentSkipListMap<Long, Task> bucket(Task... tasks) {
+		ConcurrentSkipListMap<Long, Task> bucket = new ConcurrentSkipListMap<>();
+		for (Task task : tasks) {
+			bucket.put(task.getTaskId(), task);
+		}
+		return bucket;
+	}
+
+	private static List<String> counts(TaskRepository tasks) {
+		TaskCounts counts = tasks.counts();
+		List<String> lines = new ArrayList<>();
+		lines.add(counts.getTotal() + " total, " + counts.getOpen() + " open, " + counts.getCompleted() + " completed");
+		for (PriorityCount count : counts.getByPriority()) {
+			lines.add(count.getPriority() + " " + count.getOpen() + "/" + count.getCompleted());
+		}
+		return lines;
+	}
+
+	private static List<Long> ids(List<Task> tasks) {
+		return tasks.stream().map(Task::getTaskId).toList();
+	}
+
+}
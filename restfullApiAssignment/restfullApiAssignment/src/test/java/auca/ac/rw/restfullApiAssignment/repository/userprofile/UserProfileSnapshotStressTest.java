@@ -0,0 +1,193 @@
+package auca.ac.rw.restfullApiAssignment.repository.userprofile;
+
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.UserProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserProfileSnapshotStressTest {
+
+	private static final int USERS = 200;
+	private static final int WRITERS = 4;
+	private static final int READERS = 8;
+	private static final int WRITES_PER_WRITER = 5_000;
+	private static final long MEASURE_MILLIS = 500;
+
+	@Test
+	void readersNeverSeeTornProfilesWhileWritersReplaceAndToggle() throws Exception {
+		UserProfileRepository repository = new UserProfileRepository();
+		for (long id = 1; id <= USERS; id++) {
+			repository.load(profile(id, 0));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean writing = new AtomicBoolean(true);
+		List<Future<Integer>> writers = new ArrayList<>();
+		List<Future<Integer>> readers = new ArrayList<>();
+		try {
+			for (int w = 0; w < WRITERS; w++) {
+				int writer = w;
+				Callable<Integer> task = () -> {
+					start.await();
+					for (int i = 1; i <= WRITES_PER_WRITER; i++) {
+						long id = 1 + (long) (writer + i * WRITERS) % USERS;
+						if (i % 3 == 0) {
+							repository.setActive(id, i % 2 == 0);
+						} else {
+							repository.replace(id, profile(id, writer * WRITES_PER_WRITER + i));
+						}
+					}
+					return WRITES_PER_WRITER;
+				};
+				writers.add(executor.submit(task));
+			}
+			for (int r = 0; r < READERS; r++) {
+				Callable<Integer> task = () -> {
+					start.await();
+					int checked = 0;
+					while (writing.get()) {
+						List<UserProfile> snapshot = repository.snapshot();
+						assertThat(snapshot).hasSize(USERS);
+						long previousId = 0;
+						for (UserProfile user : snapshot) {
+							assertConsistent(user);
+							assertThat(user.getUserId()).isGreaterThan(previousId);
+							previousId = user.getUserId();
+						}
+						for (UserProfile user : repository.query(null, 0, 200, null)) {
+							assertConsistent(user);
+						}
+						UserMatches activeUsers = repository.match(null, null, null, true);
+						int rows = 0;
+						for (UserProfile user : activeUsers) {
+							assertThat(user.isActive()).isTrue();
+							rows++;
+						}
+						assertThat(rows).isEqualTo(activeUsers.count());
+						checked++;
+					}
+					return checked;
+				};
+				readers.add(executor.submit(task));
+			}
+			start.countDown();
+
+			for (Future<Integer> future : writers) {
+				future.get();
+			}
+			writing.set(false);
+			for (Future<Integer> future : readers) {
+				assertThat(future.get()).isPositive();
+			}
+
+			List<UserProfile> finalSnapshot = repository.snapshot();
+			assertThat(finalSnapshot).hasSize(USERS);
+			finalSnapshot.forEach(UserProfileSnapshotStressTest::assertConsistent);
+		} finally {
+			writing.set(false);
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void storedProfilesRejectMutationAndKeepIndexesIntact() {
+		UserProfileRepository repository = new UserProfileRepository();
+		UserProfile stored = repository.add(profile(1, 0));
+
+		assertThatThrownBy(() -> stored.setUsername("intruder")).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> repository.findById(stored.getUserId()).get().setActive(false))
+				.isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> repository.snapshot().get(0).setCountry("Elsewhere"))
+				.isInstanceOf(UnsupportedOperationException.class);
+
+		// A copy is editable and only takes effect once stored again
+		UserProfile copy = new UserProfile(stored);
+		copy.setUsername("renamed");
+		assertThat(repository.findByUsername(stored.getUsername())).isPresent();
+		assertThat(repository.findByUsername("renamed")).isEmpty();
+		assertThat(repository.count(null, null, null, true)).isEqualTo(1);
+	}
+
+	@Test
+	void snapshotReadThroughputWithOneAndManyReaders(TestReporter reporter) throws Exception {
+		UserProfileRepository repository = new UserProfileRepository();
+		for (long id = 1; id <= USERS; id++) {
+			repository.load(profile(id, 0));
+		}
+
+		for (int readers : new int[] {1, READERS}) {
+			long reads = measureSnapshotReads(repository, readers);
+			assertThat(reads).isPositive();
+			reporter.publishEntry("snapshotReadsPerSecondWith" + readers + "Readers",
+					String.valueOf(reads * 1_000 / MEASURE_MILLIS));
+		}
+	}
+
+	// Readers walk the snapshot for MEASURE_MILLIS while one writer replaces a profile every millisecond
+	private static long measureSnapshotReads(UserProfileRepository repository, int readers) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+		AtomicBoolean running = new AtomicBoolean(true);
+		try {
+			executor.submit(() -> {
+				int generation = 1;
+				while (running.get()) {
+					long id = 1 + generation % USERS;
+					repository.replace(id, profile(id, generation++));
+					Thread.sleep(1);
+				}
+				return null;
+			});
+			List<Future<Long>> counts = new ArrayList<>();
+			for (int r = 0; r < readers; r++) {
+				counts.add(executor.submit(() -> {
+					long reads = 0;
+					long ages = 0;
+					while (running.get()) {
+						for (UserProfile user : repository.snapshot()) {
+							ages += user.getAge();
+						}
+						reads++;
+					}
+					return ages > 0 ? reads : 0;
+				}));
+			}
+			Thread.sleep(MEASURE_MILLIS);
+			running.set(false);
+			long total = 0;
+			for (Future<Long> count : counts) {
+				total += count.get();
+			}
+			return total;
+		} finally {
+			running.set(false);
+			executor.shutdownNow();
+		}
+	}
+
+	// Every field written by one replace carries the same generation number
+	private static UserProfile profile(long id, int generation) {
+		return new UserProfile(id, "user" + id + "_" + generation, "user" + id + "_" + generation + "@example.com",
+				"User " + id + " " + generation, 20 + generation % 40, "Country" + generation % 5, "bio", true);
+	}
+
+	private static void assertConsistent(UserProfile user) {
+		String generation = user.getUsername().substring(user.getUsername().indexOf('_') + 1);
+		assertThat(user.getUsername()).isEqualTo("user" + user.getUserId() + "_" + generation);
+		assertThat(user.getEmail()).isEqualTo("user" + user.getUserId() + "_" + generation + "@example.com");
+		assertThat(user.getFullName()).isEqualTo("User " + user.getUserId() + " " + generation);
+		assertThat(user.getAge()).isEqualTo(20 + Integer.parseInt(generation) % 40);
+	}
+
+}
@@ -0,0 +1,99 @@
+package auca.ac.rw.restfullApiAssignment.repository.userprofile;
+
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.UserProfile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserProfileUniqueIndexTest {
+
+	private static final int USERS = 1_000_000;
+	private static final int TIMED_TAIL = 100_000;
+	private static final int LOOKUPS = 100_000;
+	private static final int SCANS = 5;
+
+	@Test
+	void usernameAndEmailStayUniqueCaseInsensitivelyOnCreateAndUpdate() {
+		UserProfileRepository repository = new UserProfileRepository();
+		UserProfile alice = repository.add(profile("Alice", "alice@example.com"));
+		UserProfile bob = repository.add(profile("bob", "bob@example.com"));
+
+		assertThatThrownBy(() -> repository.add(profile("ALICE", "other@example.com")))
+				.isInstanceOf(DuplicateUserException.class);
+		assertThatThrownBy(() -> repository.add(profile("carol", "Alice@Example.com")))
+				.isInstanceOf(DuplicateUserException.class);
+		assertThatThrownBy(() -> repository.replace(bob.getUserId(), profile("alice", "bob@example.com")))
+				.isInstanceOf(DuplicateUserException.class);
+		assertThat(repository.findByUsername("BOB")).contains(bob);
+
+		// Renaming frees the old keys for someone else
+		repository.replace(alice.getUserId(), profile("alicia", "alicia@example.com"));
+		assertThat(repository.findByUsername("alice")).isEmpty();
+		assertThat(repository.add(profile("alice", "alice@example.com")).getUserId()).isNotEqualTo(alice.getUserId());
+		assertThat(repository.findByEmail("ALICIA@example.com").map(UserProfile::getUserId)).contains(alice.getUserId());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void uniqueIndexInsertAndLookupCostAtOneMillionUsers(TestReporter reporter) {
+		UserProfileRepository repository = new UserProfileRepository();
+		for (int i = 0; i < USERS - TIMED_TAIL; i++) {
+			repository.add(profile("user" + i, "user" + i + "@example.com"));
+		}
+
+		// Inserts near 1M users: both uniqueness checks, both claims and the other indexes
+		long startedAt = System.nanoTime();
+		for (int i = USERS - TIMED_TAIL; i < USERS; i++) {
+			repository.add(profile("user" + i, "user" + i + "@example.com"));
+		}
+		long insertNanos = (System.nanoTime() - startedAt) / TIMED_TAIL;
+		assertThat(repository.snapshot()).hasSize(USERS);
+
+		// A rejected insert stops after the index lookups; its cost is dominated by building the exception
+		startedAt = System.nanoTime();
+		int rejected = 0;
+		for (int i = 0; i < LOOKUPS; i++) {
+			try {
+				repository.add(profile("USER" + i, "fresh" + i + "@example.com"));
+			} catch (DuplicateUserException e) {
+				rejected++;
+			}
+		}
+		long rejectNanos = (System.nanoTime() - startedAt) / LOOKUPS;
+		assertThat(rejected).isEqualTo(LOOKUPS);
+
+		startedAt = System.nanoTime();
+		int found = 0;
+		for (int i = 0; i < LOOKUPS; i++) {
+			found += repository.findByUsername("USER" + (i * 7L % USERS)).isPresent() ? 1 : 0;
+		}
+		long indexLookupNanos = (System.nanoTime() - startedAt) / LOOKUPS;
+		assertThat(found).isEqualTo(LOOKUPS);
+
+		// The lookup getUserByUsername did before the index: a stream scan with equalsIgnoreCase
+		startedAt = System.nanoTime();
+		for (int i = 0; i < SCANS; i++) {
+			String username = "USER" + (USERS - 1 - i);
+			Optional<UserProfile> match = repository.values().stream()
+					.filter(user -> user.getUsername().equalsIgnoreCase(username))
+					.findFirst();
+			assertThat(match).isPresent();
+		}
+		long scanLookupNanos = (System.nanoTime() - startedAt) / SCANS;
+
+		reporter.publishEntry("insertNanosNearOneMillionUsers", String.valueOf(insertNanos));
+		reporter.publishEntry("duplicateRejectNanos", String.valueOf(rejectNanos));
+		reporter.publishEntry("indexLookupNanos", String.valueOf(indexLookupNanos));
+		reporter.publishEntry("streamScanLookupNanos", String.valueOf(scanLookupNanos));
+	}
+
+	private static UserProfile profile(String username, String email) {
+		return new UserProfile(null, username, email, "Full Name", 30, "Rwanda", "bio", true);
+	}
+
+}
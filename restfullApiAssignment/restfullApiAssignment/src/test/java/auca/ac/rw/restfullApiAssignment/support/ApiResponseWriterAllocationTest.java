@@ -0,0 +1,115 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.ApiResponse;
+import auca.ac.rw.restfullApiAssignment.modal.userprofile.UserProfile;
+import auca.ac.rw.restfullApiAssignment.repository.userprofile.UserMatches;
+import auca.ac.rw.restfullApiAssignment.repository.userprofile.UserProfileRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiResponseWriterAllocationTest {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final int USERS = 1_000;
+	private static final int WARMUP_REQUESTS = 2_000;
+	private static final int MEASURED_REQUESTS = 2_000;
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	@Test
+	void streamedEnvelopeMatchesTheApiResponseItReplaces() throws IOException {
+		UserProfileRepository repository = repository();
+		ApiResponseWriter writer = new ApiResponseWriter(OBJECT_MAPPER);
+
+		ByteArrayOutputStream before = new ByteArrayOutputStream();
+		ByteArrayOutputStream after = new ByteArrayOutputStream();
+		envelopeResponse(repository, before);
+		streamedResponse(repository, writer, after);
+
+		assertThat(after.toString()).isEqualTo(before.toString());
+		assertThat(OBJECT_MAPPER.readTree(after.toByteArray()).get("data").size()).isEqualTo(USERS / 2);
+	}
+
+	@Test
+	void bytesAllocatedPerActiveUsersRequestBeforeAndAfter(TestReporter reporter) throws IOException {
+		UserProfileRepository repository = repository();
+		ApiResponseWriter writer = new ApiResponseWriter(OBJECT_MAPPER);
+		OutputStream sink = new DiscardingOutputStream();
+
+		long envelopeBytes = bytesPerRequest(() -> envelopeResponse(repository, sink));
+		long streamedBytes = bytesPerRequest(() -> streamedResponse(repository, writer, sink));
+
+		assertThat(streamedBytes).isLessThan(envelopeBytes);
+		reporter.publishEntry("apiResponseBytesPerRequest", String.valueOf(envelopeBytes));
+		reporter.publishEntry("streamedBytesPerRequest", String.valueOf(streamedBytes));
+	}
+
+	// GET /api/users/active before the writer: a copied result list in an ApiResponse, serialized by Jackson
+	private static void envelopeResponse(UserProfileRepository repository, OutputStream out) throws IOException {
+		List<UserProfile> result = repository.query(null, null, null, true);
+		ApiResponse<List<UserProfile>> response = new ApiResponse<>(
+				true,
+				"Found " + result.size() + " active user(s)",
+				result
+		);
+		OBJECT_MAPPER.writeValue(out, new ResponseEntity<>(response, HttpStatus.OK).getBody());
+	}
+
+	// GET /api/users/active now: the matches streamed through the envelope writer
+	private static void streamedResponse(UserProfileRepository repository, ApiResponseWriter writer, OutputStream out)
+			throws IOException {
+		UserMatches result = repository.match(null, null, null, true);
+		writer.ok("Found " + result.count() + " active user(s)", result).getBody().writeTo(out);
+	}
+
+	private static long bytesPerRequest(Request request) throws IOException {
+		for (int i = 0; i < WARMUP_REQUESTS; i++) {
+			request.run();
+		}
+		long threadId = Thread.currentThread().threadId();
+		long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_REQUESTS; i++) {
+			request.run();
+		}
+		return (THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_REQUESTS;
+	}
+
+	private static UserProfileRepository repository() {
+		UserProfileRepository repository = new UserProfileRepository();
+		for (long id = 1; id <= USERS; id++) {
+			repository.load(new UserProfile(id, "user" + id, "user" + id + "@example.com", "User " + id,
+					20 + (int) (id % 40), "Country" + id % 5, "bio", id % 2 == 0));
+		}
+		return repository;
+	}
+
+	@FunctionalInterface
+	private interface Request {
+		void run() throws IOException;
+	}
+
+	// Both paths close the stream they write to, so the sink must survive close()
+	private static final class DiscardingOutputStream extends OutputStream {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	}
+
+}
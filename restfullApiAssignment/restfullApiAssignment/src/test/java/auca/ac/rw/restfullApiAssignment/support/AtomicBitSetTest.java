@@ -0,0 +1,99 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AtomicBitSetTest {
+
+	// 1,024 words of 64 bits per segment
+	private static final long SEGMENT_BITS = 65_536;
+
+	private static final int THREADS = 8;
+	private static final int FLIPS_PER_THREAD = 100_001;
+
+	@Test
+	void bitsOnWordAndSegmentBoundariesAreIndependent() {
+		AtomicBitSet bits = new AtomicBitSet();
+		long[] boundaries = {0, 63, 64, SEGMENT_BITS - 1, SEGMENT_BITS, SEGMENT_BITS + 63, 3 * SEGMENT_BITS - 1, 3 * SEGMENT_BITS};
+
+		for (long bit : boundaries) {
+			assertThat(bits.set(bit, true)).isFalse();
+		}
+
+		List<Long> visited = new ArrayList<>();
+		bits.forEachSetBit(visited::add);
+		assertThat(visited).containsExactly(0L, 63L, 64L, SEGMENT_BITS - 1, SEGMENT_BITS, SEGMENT_BITS + 63,
+				3 * SEGMENT_BITS - 1, 3 * SEGMENT_BITS);
+		for (long bit : new long[] {1, 62, 65, SEGMENT_BITS - 2, SEGMENT_BITS + 1, 2 * SEGMENT_BITS, 3 * SEGMENT_BITS + 1}) {
+			assertThat(bits.get(bit)).isFalse();
+		}
+
+		assertThat(bits.flip(SEGMENT_BITS)).isFalse();
+		assertThat(bits.get(SEGMENT_BITS - 1)).isTrue();
+		assertThat(bits.get(SEGMENT_BITS)).isFalse();
+		assertThat(bits.set(SEGMENT_BITS - 1, false)).isTrue();
+		assertThat(bits.get(SEGMENT_BITS + 63)).isTrue();
+	}
+
+	@Test
+	void readingOrClearingPastTheEndDoesNotGrow() {
+		AtomicBitSet bits = new AtomicBitSet();
+
+		assertThat(bits.get(10 * SEGMENT_BITS)).isFalse();
+		assertThat(bits.set(10 * SEGMENT_BITS, false)).isFalse();
+
+		List<Long> visited = new ArrayList<>();
+		bits.forEachSetBit(visited::add);
+		assertThat(visited).isEmpty();
+	}
+
+	@Test
+	void concurrentFlipsOfBitsInTheSameWordAreNeverLost() throws Exception {
+		AtomicBitSet bits = new AtomicBitSet();
+		// Every thread owns one bit of the last word of segment 0 and one of the first word of segment 1,
+		// which does not exist yet, so the flips also race with growing the segments
+		long lastWord = SEGMENT_BITS - 64;
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < THREADS; t++) {
+				long own = lastWord + t * 7;
+				long next = SEGMENT_BITS + t * 7;
+				futures.add(executor.submit(() -> {
+					start.await();
+					// An odd number of flips leaves each bit set
+					for (int i = 0; i < FLIPS_PER_THREAD; i++) {
+						bits.flip(own);
+						bits.flip(next);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		List<Long> visited = new ArrayList<>();
+		bits.forEachSetBit(visited::add);
+		assertThat(visited).hasSize(2 * THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			assertThat(bits.get(lastWord + t * 7)).isTrue();
+			assertThat(bits.get(SEGMENT_BITS + t * 7)).isTrue();
+		}
+	}
+
+}
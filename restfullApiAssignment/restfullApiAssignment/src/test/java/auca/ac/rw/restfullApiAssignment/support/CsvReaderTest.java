@@ -0,0 +1,84 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+	@Test
+	void quotedFieldsKeepEmbeddedQuotesCommasAndLineBreaks() throws IOException {
+		List<String[]> records = readAll(new CsvReader(new StringReader(
+				"name,quote\r\n"
+						+ "\"Doe, Jane\",\"She said \"\"hi\"\"\"\r\n"
+						+ "\"multi\nline\",\"\"\n"
+						+ "\n"
+						+ "plain,\"crlf\r\ninside\"")));
+
+		assertThat(records).containsExactly(
+				new String[] {"name", "quote"},
+				new String[] {"Doe, Jane", "She said \"hi\""},
+				new String[] {"multi\nline", ""},
+				new String[] {"plain", "crlf\r\ninside"});
+	}
+
+	@Test
+	void unterminatedQuoteIsMalformed() throws IOException {
+		CsvReader csv = new CsvReader(new StringReader("a,b\n\"open,never closed\nnext,row\n"));
+
+		assertThat(csv.next()).containsExactly("a", "b");
+		assertThatThrownBy(csv::next)
+				.isInstanceOf(CsvReader.MalformedCsvException.class)
+				.hasMessageContaining("Unterminated");
+	}
+
+	@Test
+	void byteOrderMarkIsStrippedFromTheFirstHeaderCell() throws IOException {
+		byte[] utf8WithBom = "\uFEFFfirstName,lastName\nAda,Lovelace\n".getBytes(StandardCharsets.UTF_8);
+
+		List<String[]> records = readAll(new CsvReader(
+				new InputStreamReader(new ByteArrayInputStream(utf8WithBom), StandardCharsets.UTF_8)));
+
+		assertThat(records).containsExactly(
+				new String[] {"firstName", "lastName"},
+				new String[] {"Ada", "Lovelace"});
+	}
+
+	@Test
+	void fieldsAndRecordsOverTheirLimitAreMalformed() throws IOException {
+		CsvReader fields = new CsvReader(new StringReader("12345,123\n123456\n"), 5, 100);
+		assertThat(fields.next()).containsExactly("12345", "123");
+		assertThatThrownBy(fields::next)
+				.isInstanceOf(CsvReader.MalformedCsvException.class)
+				.hasMessageContaining("Field longer than 5");
+
+		CsvReader records = new CsvReader(new StringReader("1234,1234\n1234,12345\n"), 100, 9);
+		assertThat(records.next()).containsExactly("1234", "1234");
+		assertThatThrownBy(records::next)
+				.isInstanceOf(CsvReader.MalformedCsvException.class)
+				.hasMessageContaining("Record longer than 9");
+
+		// An unterminated quote stops at the field limit instead of buffering the rest of the input
+		CsvReader unterminated = new CsvReader(new StringReader("\"" + "x".repeat(10_000)), 64, 1_000_000);
+		assertThatThrownBy(unterminated::next).hasMessageContaining("Field longer than 64");
+	}
+
+	private static List<String[]> readAll(CsvReader csv) throws IOException {
+		List<String[]> records = new ArrayList<>();
+		String[] record;
+		while ((record = csv.next()) != null) {
+			records.add(record);
+		}
+		return records;
+	}
+
+}
@@ -0,0 +1,85 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonCacheTest {
+
+	@Test
+	void invalidatingOrRemovingUnknownIdsLeavesNoEntries() {
+		JsonCache cache = new JsonCache(new ObjectMapper());
+
+		for (long id = 1; id <= 10_000; id++) {
+			cache.invalidate(id);
+			cache.remove(id);
+		}
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void invalidateRendersAgainAndRemoveForgetsTheEntry() {
+		JsonCache cache = new JsonCache(new ObjectMapper());
+		AtomicInteger loads = new AtomicInteger();
+
+		assertThat(new String(cache.get(1L, () -> Map.of("v", loads.incrementAndGet())))).isEqualTo("{\"v\":1}");
+		assertThat(new String(cache.get(1L, () -> Map.of("v", loads.incrementAndGet())))).isEqualTo("{\"v\":1}");
+
+		cache.invalidate(1L);
+		assertThat(new String(cache.get(1L, () -> Map.of("v", loads.incrementAndGet())))).isEqualTo("{\"v\":2}");
+		assertThat(cache.size()).isEqualTo(1);
+
+		cache.remove(1L);
+		assertThat(cache.size()).isZero();
+		assertThat(cache.get(1L, () -> null)).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void firstRenderThatRacedAnInvalidateIsNotStored() {
+		JsonCache cache = new JsonCache(new ObjectMapper());
+
+		// The entity changes while its first render is in flight
+		byte[] stale = cache.get(1L, () -> {
+			cache.invalidate(1L);
+			return Map.of("v", "stale");
+		});
+
+		assertThat(new String(stale)).isEqualTo("{\"v\":\"stale\"}");
+		assertThat(new String(cache.get(1L, () -> Map.of("v", "fresh")))).isEqualTo("{\"v\":\"fresh\"}");
+	}
+
+	@Test
+	void changesToOtherIdsDoNotDiscardAFirstRender() {
+		JsonCache cache = new JsonCache(new ObjectMapper());
+		AtomicInteger loads = new AtomicInteger();
+
+		// Other entities keep changing while this one is rendered for the first time
+		cache.get(1L, () -> {
+			cache.invalidate(2L);
+			cache.remove(3L);
+			return Map.of("v", loads.incrementAndGet());
+		});
+
+		assertThat(new String(cache.get(1L, () -> Map.of("v", loads.incrementAndGet())))).isEqualTo("{\"v\":1}");
+		assertThat(loads).hasValue(1);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void missesLeaveNoPendingEntries() {
+		JsonCache cache = new JsonCache(new ObjectMapper());
+
+		for (long id = 1; id <= 1_000; id++) {
+			assertThat(cache.get(id, () -> null)).isNull();
+		}
+
+		assertThat(cache.size()).isZero();
+	}
+
+}
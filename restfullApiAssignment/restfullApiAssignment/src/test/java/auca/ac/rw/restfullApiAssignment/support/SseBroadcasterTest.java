@@ -0,0 +1,158 @@
+package auca.ac.rw.restfullApiAssignment.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseBroadcasterTest {
+
+	// More events than one client may have pending, so the stalled clients overflow
+	private static final int EVENTS = 300;
+
+	// More stalled clients than a small shared sender pool would have threads
+	private static final int STALLED_CLIENTS = 3;
+
+	// Short enough for quick tests, long enough that a healthy client's heartbeat is always sent before
+	// the next one is due, even on a busy single CPU; a heartbeat still pending then drops the client
+	private static final Duration HEARTBEAT = Duration.ofMillis(200);
+
+	@Test
+	void stalledClientsAreDroppedWithoutDelayingTheOthers() throws Exception {
+		SseBroadcaster broadcaster = new SseBroadcaster("test", Duration.ofHours(1));
+		CountDownLatch unblock = new CountDownLatch(1);
+		CountingEmitter healthy = new CountingEmitter(null, false);
+		for (int i = 0; i < STALLED_CLIENTS; i++) {
+			String name = "stalled" + i;
+			broadcaster.connect(new CountingEmitter(unblock, false), "hello", () -> name);
+		}
+		broadcaster.connect(healthy, "hello", () -> "healthy");
+
+		try {
+			// The healthy client receives every event while the stalled ones still block their first send
+			for (int i = 1; i <= EVENTS; i++) {
+				broadcaster.broadcast("tick", i);
+				assertThat(healthy.awaitSends(1 + i)).isTrue();
+			}
+
+			assertThat(broadcaster.connections()).isEqualTo(1);
+		} finally {
+			unblock.countDown();
+		}
+	}
+
+	@Test
+	void heartbeatDropsAClientStuckForAWholeInterval() throws Exception {
+		SseBroadcaster broadcaster = new SseBroadcaster("test", HEARTBEAT);
+		CountDownLatch unblock = new CountDownLatch(1);
+		CountingEmitter alive = new CountingEmitter(null, false);
+		broadcaster.connect(new CountingEmitter(unblock, false), "hello", () -> "stalled");
+		broadcaster.connect(alive, "hello", () -> "alive");
+
+		try {
+			// Initial event plus at least three heartbeats, long before the stalled queue could overflow
+			assertThat(alive.awaitSends(4)).isTrue();
+			assertThat(broadcaster.connections()).isEqualTo(1);
+		} finally {
+			unblock.countDown();
+		}
+	}
+
+	@Test
+	void heartbeatRemovesDeadConnections() throws Exception {
+		SseBroadcaster broadcaster = new SseBroadcaster("test", HEARTBEAT);
+		CountingEmitter dead = new CountingEmitter(null, true);
+		CountingEmitter alive = new CountingEmitter(null, false);
+		broadcaster.connect(dead, "hello", () -> "dead");
+		broadcaster.connect(alive, "hello", () -> "alive");
+
+		// Initial event plus at least two heartbeats
+		assertThat(alive.awaitSends(3)).isTrue();
+		assertThat(broadcaster.connections()).isEqualTo(1);
+	}
+
+	@Test
+	void changeDuringConnectArrivesAfterTheSnapshot() throws Exception {
+		SseBroadcaster broadcaster = new SseBroadcaster("test", Duration.ofHours(1));
+		AtomicInteger version = new AtomicInteger();
+		CountDownLatch rendering = new CountDownLatch(1);
+		CountingEmitter screen = new CountingEmitter(null, false);
+
+		// A change lands while the board is being rendered for a new screen
+		Thread change = new Thread(() -> {
+			try {
+				rendering.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			version.incrementAndGet();
+			broadcaster.broadcast("changed", version::get);
+		});
+		change.start();
+		broadcaster.connect(screen, "board", () -> {
+			rendering.countDown();
+			try {
+				change.join(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return version.get();
+		});
+		change.join();
+
+		// The change is queued behind the board instead of being lost or overtaken
+		assertThat(screen.awaitSends(2)).isTrue();
+		assertThat(screen.received).containsExactly("event:board\ndata:1\n\n", "event:changed\ndata:1\n\n");
+	}
+
+	// Blocks every send until released, fails every send, or counts successful sends
+	private static final class CountingEmitter extends SseEmitter {
+		private final CountDownLatch unblock;
+		private final boolean failing;
+		private final AtomicInteger sends = new AtomicInteger();
+		private final List<String> received = new CopyOnWriteArrayList<>();
+
+		private CountingEmitter(CountDownLatch unblock, boolean failing) {
+			super(0L);
+			this.unblock = unblock;
+			this.failing = failing;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (failing) {
+				throw new IOException("Broken pipe");
+			}
+			if (unblock != null) {
+				try {
+					unblock.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			received.add(builder.build().stream().map(part -> String.valueOf(part.getData())).collect(Collectors.joining()));
+			sends.incrementAndGet();
+		}
+
+		private boolean awaitSends(int expected) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (sends.get() < expected) {
+				if (System.nanoTime() > deadline) {
+					return false;
+				}
+				Thread.yield();
+			}
+			return true;
+		}
+	}
+
+}